@@ -1,5 +1,6 @@
 package com.fathzer.games;
 
+import java.util.Collections;
 import java.util.List;
 
 import com.fathzer.games.util.exec.Forkable;
@@ -42,6 +43,52 @@ public interface MoveGenerator<M> extends Forkable<MoveGenerator<M>> {
      */
 	void unmakeMove();
 	
+	/** Checks whether a move is a <i>tactical</i> move that search algorithms should never prune.
+	 * <br>It is used by pruning techniques based on the static evaluation, like <a href="https://www.chessprogramming.org/Futility_Pruning">futility pruning</a>,
+	 * that assume moves can't change a lot the evaluation. Typically, in chess, captures, promotions and checks are tactical moves.
+	 * <br>This method is called before the move is played.
+	 * @param move A move returned by {@link #getMoves()}
+	 * @return true if the move should never be pruned. The default implementation returns false.
+	 */
+	default boolean isTactical(M move) {
+		return false;
+	}
+	
+	/** Checks whether a move can be searched with a reduced depth by search algorithms that use <a href="https://www.chessprogramming.org/Late_Move_Reductions">Late Move Reductions</a>.
+	 * <br>This method is called before the move is played. Typically, in chess, captures, promotions, checks and moves played when the king is in check should not be reduced.
+	 * @param move A move returned by {@link #getMoves()}
+	 * @return true if the move can be reduced. The default implementation returns true.
+	 */
+	default boolean isReducible(M move) {
+		return true;
+	}
+	
+	/** Checks whether this move generator supports <a href="https://www.chessprogramming.org/Null_Move">null moves</a>.
+	 * <br>A null move is a move where the current player passes its turn. It is usually not a legal move but is useful to implement some search
+	 * optimizations, like <a href="https://www.chessprogramming.org/Null_Move_Pruning">null move pruning</a>.
+	 * @return true if {@link #makeNullMove()} and {@link #unmakeNullMove()} are supported. The default implementation returns false.
+	 */
+	default boolean isNullMoveSupported() {
+		return false;
+	}
+	
+	/** Plays a null move (the current player passes its turn).
+	 * <br>Implementors should refuse to play a null move in positions where passing would lead a search algorithm to wrong conclusions.
+	 * Typically, in chess, when the king is in check or when the player has only pawns left (where <a href="https://www.chessprogramming.org/Zugzwang">zugzwang</a> positions are frequent).
+	 * @return true if the null move was played, false if it was refused.
+	 * @throws UnsupportedOperationException if null moves are not supported (see {@link #isNullMoveSupported()}). This is the default implementation.
+	 */
+	default boolean makeNullMove() {
+		throw new UnsupportedOperationException();
+	}
+	
+	/** Undo the last move, which was a null move played by {@link #makeNullMove()}.
+	 * @throws UnsupportedOperationException if null moves are not supported (see {@link #isNullMoveSupported()}). This is the default implementation.
+	 */
+	default void unmakeNullMove() {
+		throw new UnsupportedOperationException();
+	}
+	
     /**
      * Lists every possible moves of the current player.
      * @return a list of moves.
@@ -56,6 +103,18 @@ public interface MoveGenerator<M> extends Forkable<MoveGenerator<M>> {
      */
 	List<M> getMoves();
 	
+	/**
+	 * Lists the <i>tactical</i> moves of the current player, the ones searched by a <a href="https://www.chessprogramming.org/Quiescence_Search">quiescence search</a>.
+	 * <br>Typically, in chess, captures and promotions. The list can contain illegal moves, like {@link #getMoves()}, and it should be sorted with the (a priori) best moves first.
+	 * <br>Please note that a quiescence search considers the current player can <i>stand pat</i> (choose to play none of these moves).
+	 * If this is not true in some positions (typically, in chess, when the king is in check), this method should return the moves that escape from this situation.
+	 * @return a list of moves. The default implementation returns an empty list (no quiescence search is performed).
+	 * @see com.fathzer.games.ai.evaluation.QuiesceSearch
+	 */
+	default List<M> getQuiesceMoves() {
+		return Collections.emptyList();
+	}
+	
 	/**
 	 * Lists every legal moves of the current player.
 	 * <br>The default implementation uses {@link #getMoves()}, {@link #makeMove(Object, MoveConfidence)} and {@link #unmakeMove()}
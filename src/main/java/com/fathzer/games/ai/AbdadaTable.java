@@ -0,0 +1,80 @@
+package com.fathzer.games.ai;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/** A table that records the positions currently searched by the threads of a parallel search, in order to implement a simplified
+ * <a href="https://www.chessprogramming.org/ABDADA">ABDADA</a> (see {@link Negamax#setAbdada(AbdadaTable, int)}).
+ * <br>Positions are identified by their hash key (see {@link com.fathzer.games.HashProvider}). The table has a fixed size,
+ * a new position replaces the one stored at the same index.
+ * <br>This table is lock-free and should be shared by all the threads of the search. As it is only used to order moves, it does not need to be exact:
+ * A position can be wrongly considered as not searched (for instance if it was replaced by another one), but a position
+ * that was never entered is never considered as searched, except when two keys are written at the same time at the same index.
+ * <br>Please note that key 0 is never considered as searched.
+ */
+public class AbdadaTable {
+	/** The default number of entries of the table. */
+	public static final int DEFAULT_SIZE = 32768;
+
+	private final AtomicLongArray keys;
+	private final int mask;
+
+	/** Constructor.
+	 * <br>Creates a table with {@link #DEFAULT_SIZE} entries.
+	 */
+	public AbdadaTable() {
+		this(DEFAULT_SIZE);
+	}
+
+	/** Constructor.
+	 * @param size The number of entries of the table.
+	 * @throws IllegalArgumentException if size is not a strictly positive power of 2
+	 */
+	public AbdadaTable(int size) {
+		if (size<=0 || Integer.bitCount(size)!=1) {
+			throw new IllegalArgumentException("Size should be a positive power of 2");
+		}
+		this.keys = new AtomicLongArray(size);
+		this.mask = size-1;
+	}
+
+	private int getIndex(long key) {
+		return (int)(key ^ (key >>> 32)) & mask;
+	}
+
+	/** Tests whether a position is currently searched by a thread.
+	 * @param key The position's hash key
+	 * @return true if the position is searched
+	 */
+	public boolean isSearched(long key) {
+		return key!=0 && keys.getOpaque(getIndex(key))==key;
+	}
+
+	/** Records that a position is being searched.
+	 * @param key The position's hash key
+	 */
+	public void enter(long key) {
+		keys.setOpaque(getIndex(key), key);
+	}
+
+	/** Records that the search of a position is finished.
+	 * <br>If the entry of the position was replaced by another position, this method does nothing.
+	 * @param key The position's hash key
+	 */
+	public void leave(long key) {
+		keys.compareAndExchange(getIndex(key), key, 0);
+	}
+
+	/** Removes all the positions from the table. */
+	public void clear() {
+		for (int i = 0; i < keys.length(); i++) {
+			keys.setOpaque(i, 0);
+		}
+	}
+
+	/** Gets the number of entries of the table.
+	 * @return a positive int
+	 */
+	public int getSize() {
+		return keys.length();
+	}
+}
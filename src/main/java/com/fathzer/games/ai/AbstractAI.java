@@ -49,7 +49,7 @@ public abstract class AbstractAI<M, B extends MoveGenerator<M>> implements Depth
 
 	@Override
     public SearchResult<M> getBestMoves(List<M> moves, DepthFirstSearchParameters params) {
-		return getBestMoves(moves, params, (m,lowestInterestingScore)->rootEvaluation(m,params.getDepth(), lowestInterestingScore));
+		return getBestMoves(moves, params, (m,lowestInterestingScore)->rootEvaluation(m,params.getDepth(), Math.max(lowestInterestingScore, params.getWindowLow()), params.getWindowHigh()));
     }
 	
 	/**
@@ -60,6 +60,18 @@ public abstract class AbstractAI<M, B extends MoveGenerator<M>> implements Depth
 	 * @return The score of the move (the score is computed by the {@link #getRootScore(int, int)} method), or null if the move is not valid
 	 */
 	protected Integer rootEvaluation(M move, final int depth, int lowestInterestingScore) {
+		return rootEvaluation(move, depth, lowestInterestingScore, Integer.MAX_VALUE);
+	}
+	
+	/**
+	 * Evaluates a root move of the search tree in a window.
+	 * @param move The move to evaluate
+	 * @param depth The depth of the search
+	 * @param lowestInterestingScore The lowest interesting score under which the evaluation is not interesting (typically this can be used to cut the tree when this evaluation can't be reached)
+	 * @param highestInterestingScore The highest interesting score above which the evaluation is not interesting (see {@link DepthFirstSearchParameters#setWindow(int, int)})
+	 * @return The score of the move (the score is computed by the {@link #getRootScore(int, int, int)} method), or null if the move is not valid
+	 */
+	protected Integer rootEvaluation(M move, final int depth, int lowestInterestingScore, int highestInterestingScore) {
     	if (lowestInterestingScore==Integer.MIN_VALUE) {
     		// WARNING: -Integer.MIN_VALUE is equals to ... Integer.MIN_VALUE
     		// So using it as alpha value makes negamax fail 
@@ -67,7 +79,7 @@ public abstract class AbstractAI<M, B extends MoveGenerator<M>> implements Depth
     	}
         if (context.getContext().makeMove(move, MoveConfidence.UNSAFE)) {
 	        getStatistics().movePlayed();
-	        final int score = getRootScore(depth, lowestInterestingScore);
+	        final int score = getRootScore(depth, lowestInterestingScore, highestInterestingScore);
 	        context.getContext().unmakeMove();
 	        return score;
         } else {
@@ -82,6 +94,18 @@ public abstract class AbstractAI<M, B extends MoveGenerator<M>> implements Depth
 	 * @return The score of the move
 	 */
 	protected abstract int getRootScore(final int depth, int lowestInterestingScore);
+	
+	/** 
+	 * Gets the score of a root move in a window.
+	 * @param depth The depth of the search
+	 * @param lowestInterestingScore The lowest interesting score under which the evaluation is not interesting (typically this can be used to cut the tree when this evaluation can't be reached)
+	 * @param highestInterestingScore The highest interesting score above which the evaluation is not interesting (Integer.MAX_VALUE if there's no such score)
+	 * @return The score of the move
+	 * <br>The default implementation ignores <code>highestInterestingScore</code> and returns {@link #getRootScore(int, int)}.
+	 */
+	protected int getRootScore(final int depth, int lowestInterestingScore, int highestInterestingScore) {
+		return getRootScore(depth, lowestInterestingScore);
+	}
 
 	/**
 	 * Performs a search on a list of moves.
@@ -116,6 +140,12 @@ public abstract class AbstractAI<M, B extends MoveGenerator<M>> implements Depth
 	public void interrupt() {
 		interrupted = true;
 	}
+
+	@Override
+	public boolean clearInterrupted() {
+		interrupted = false;
+		return true;
+	}
 	
 	/**
 	 * Gets the score when the game ended during the search (for instance, for chess, when the last move played during the search is a mate).
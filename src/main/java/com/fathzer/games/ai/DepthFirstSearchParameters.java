@@ -7,6 +7,8 @@ public class DepthFirstSearchParameters extends SearchParameters {
 	private static final String DEPTH_SHOULD_BE_STRICTLY_POSITIVE = "Depth should be strictly positive";
 
 	private int depth;
+	private int windowLow = Integer.MIN_VALUE;
+	private int windowHigh = Integer.MAX_VALUE;
 	
 	/** Constructor.
 	 * <br>By default search size is 1 and accuracy is 0
@@ -50,4 +52,36 @@ public class DepthFirstSearchParameters extends SearchParameters {
 		}
 		this.depth = depth;
 	}
+
+	/** Gets the lower bound of the search window.
+	 * @return an int, Integer.MIN_VALUE (the default) if the window is not bounded.
+	 * @see #setWindow(int, int)
+	 */
+	public int getWindowLow() {
+		return windowLow;
+	}
+
+	/** Gets the upper bound of the search window.
+	 * @return an int, Integer.MAX_VALUE (the default) if the window is not bounded.
+	 * @see #setWindow(int, int)
+	 */
+	public int getWindowHigh() {
+		return windowHigh;
+	}
+
+	/** Sets the search window (typically an <a href="https://www.chessprogramming.org/Aspiration_Windows">aspiration window</a>).
+	 * <br>The search does not compute exact scores outside the window: The returned score of a move which real score is &lt;= <code>low</code> can be any
+	 * score &lt;= <code>low</code>, the returned score of a move which real score is &gt;= <code>high</code> can be any score &gt;= <code>high</code>.
+	 * In exchange, a narrow window produces a lot more cuts in the search tree.
+	 * @param low The lower bound of the window (Integer.MIN_VALUE to have no lower bound)
+	 * @param high The upper bound of the window (Integer.MAX_VALUE to have no upper bound)
+	 * @throws IllegalArgumentException if low &gt;= high
+	 */
+	public void setWindow(int low, int high) {
+		if (low>=high) {
+			throw new IllegalArgumentException("Window's low should be less than window's high");
+		}
+		this.windowLow = low;
+		this.windowHigh = high;
+	}
 }
@@ -0,0 +1,71 @@
+package com.fathzer.games.ai;
+
+import java.util.function.IntBinaryOperator;
+
+/** The depth reductions used by <a href="https://www.chessprogramming.org/Late_Move_Reductions">Late Move Reductions</a> (LMR).
+ * <br>With LMR, the moves searched late in a node, that are <i>a priori</i> bad if moves are well ordered, are searched with a reduced depth.
+ * <br>The reductions are precomputed in a table indexed by the remaining search depth and the index of the move in the node.
+ * @see Negamax#setLateMoveReductions(LateMoveReductions)
+ */
+public class LateMoveReductions {
+	private static final int TABLE_SIZE = 64;
+	
+	private final int fullDepthMoves;
+	private final int minDepth;
+	private final int[][] reductions;
+	
+	/** Constructor.
+	 * <br>Creates an instance with the classical logarithmic formula: <i>reduction = 0.75 + ln(depth) * ln(moveIndex) / 2.25</i>,
+	 * where the 3 first moves are never reduced, and no move is reduced when remaining depth is less than 3.
+	 */
+	public LateMoveReductions() {
+		this(3, 3, (depth, moveIndex) -> (int)(0.75 + Math.log(depth) * Math.log(moveIndex) / 2.25));
+	}
+
+	/** Constructor.
+	 * @param fullDepthMoves The number of moves that are always searched at full depth in a node.
+	 * @param minDepth The minimum remaining depth a node should have for its moves to be reduced.
+	 * @param reduction A function that computes the reduction from the remaining depth (&gt;= <i>minDepth</i>) and the index of the move in the node (&gt;= <i>fullDepthMoves</i>).
+	 * Depths and move indexes greater than 63 are computed as 63.
+	 * @throws IllegalArgumentException if <i>fullDepthMoves</i> is negative or <i>minDepth</i> &lt; 2
+	 */
+	public LateMoveReductions(int fullDepthMoves, int minDepth, IntBinaryOperator reduction) {
+		if (fullDepthMoves<0 || minDepth<2) {
+			throw new IllegalArgumentException();
+		}
+		this.fullDepthMoves = fullDepthMoves;
+		this.minDepth = minDepth;
+		this.reductions = new int[TABLE_SIZE][TABLE_SIZE];
+		for (int depth = minDepth; depth < TABLE_SIZE; depth++) {
+			for (int moveIndex = fullDepthMoves; moveIndex < TABLE_SIZE; moveIndex++) {
+				reductions[depth][moveIndex] = Math.max(0, reduction.applyAsInt(depth, moveIndex));
+			}
+		}
+	}
+	
+	/** Gets the reduction of a move.
+	 * @param depth The remaining search depth of the node
+	 * @param moveIndex The index of the move in the node (0 for the first searched move)
+	 * @return The reduction. It is always less than <i>depth</i>, so that the reduced search has a depth &gt;= 0.
+	 */
+	public int getReduction(int depth, int moveIndex) {
+		if (depth<minDepth || moveIndex<fullDepthMoves) {
+			return 0;
+		}
+		return Math.min(depth-1, reductions[Math.min(depth, TABLE_SIZE-1)][Math.min(moveIndex, TABLE_SIZE-1)]);
+	}
+
+	/** Gets the number of moves that are always searched at full depth in a node.
+	 * @return a positive or null int
+	 */
+	public int getFullDepthMoves() {
+		return fullDepthMoves;
+	}
+
+	/** Gets the minimum remaining depth a node should have for its moves to be reduced.
+	 * @return an int &gt;= 2
+	 */
+	public int getMinDepth() {
+		return minDepth;
+	}
+}
@@ -1,6 +1,12 @@
 package com.fathzer.games.ai;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntUnaryOperator;
 
 import com.fathzer.games.MoveGenerator;
 import com.fathzer.games.MoveGenerator.MoveConfidence;
@@ -9,21 +15,220 @@ import com.fathzer.games.HashProvider;
 import com.fathzer.games.ai.evaluation.EvaluatedMove;
 import com.fathzer.games.ai.evaluation.Evaluator;
 import com.fathzer.games.ai.evaluation.QuiesceEvaluator;
+import com.fathzer.games.ai.moveordering.CounterMoves;
+import com.fathzer.games.ai.moveordering.HistoryHeuristic;
+import com.fathzer.games.ai.moveordering.KillerMoves;
 import com.fathzer.games.ai.transposition.AlphaBetaState;
 import com.fathzer.games.ai.transposition.EntryType;
 import com.fathzer.games.ai.transposition.TTAi;
 import com.fathzer.games.ai.transposition.TranspositionTable;
 import com.fathzer.games.ai.transposition.TranspositionTableEntry;
+import com.fathzer.games.ai.transposition.TranspositionTableStatistics;
+import com.fathzer.games.util.MoveList;
 import com.fathzer.games.util.exec.ExecutionContext;
 
 /**
  * A Negamax with alpha beta pruning implementation and transposition table usage.
+ * <br>It can optionally perform a <a href="https://www.chessprogramming.org/Principal_Variation_Search">Principal Variation Search</a> (see {@link #setPrincipalVariationSearch(boolean)})
+ * and use killer moves, countermoves and history heuristic to order the moves (see {@link #setKillerMoves(boolean)} and {@link #setHistory(HistoryHeuristic)}).
+ * <br>It can also perform <a href="https://www.chessprogramming.org/Null_Move_Pruning">null move pruning</a> (see {@link #setNullMoveReduction(int)})
+ * and <a href="https://www.chessprogramming.org/Late_Move_Reductions">late move reductions</a> (see {@link #setLateMoveReductions(LateMoveReductions)}).
+ * <br>Near the leaves, it performs <a href="https://www.chessprogramming.org/Futility_Pruning">futility pruning</a>, <a href="https://www.chessprogramming.org/Reverse_Futility_Pruning">reverse futility pruning</a>
+ * and <a href="https://www.chessprogramming.org/Razoring">razoring</a> (see {@link #setFutilityPruningDepth(int)}).
+ * <br>It can use <a href="https://www.chessprogramming.org/Mate_Distance_Pruning">mate distance pruning</a> (see {@link #setMateDistancePruning(boolean)}).
+ * <br>It can search moves in parallel using the <a href="https://www.chessprogramming.org/Young_Brothers_Wait_Concept">young brothers wait concept</a> (see {@link #setYoungBrothersWait(ForkJoinPool, int)}).
+ * <br>Threads searching the same tree can avoid searching the same positions at the same time with <a href="https://www.chessprogramming.org/ABDADA">ABDADA</a> (see {@link #setAbdada(AbdadaTable, int)}).
+ * <br>When no move is found in the transposition table, it can perform <a href="https://www.chessprogramming.org/Internal_Iterative_Deepening">internal iterative deepening</a> (see {@link #setInternalIterativeDeepening(int, int)}).
  * @param <M> The type of the moves
  * @param <B> The type of the {@link MoveGenerator} to use
  */
 public class Negamax<M,B extends MoveGenerator<M>> extends AbstractAI<M,B> implements TTAi<M, B> {
+	/** The objects reused at a search depth, in order to prevent allocating them each time a node is searched. */
+	private final class Ply {
+		private final Plies plies;
+		private final AlphaBetaState<M> state = new AlphaBetaState<>(0, 0, 0);
+		private TranspositionTableEntry<M> entry;
+		private int depth;
+		private int maxDepth;
+		private Evaluator<M, B> evaluator;
+		private final IntUnaryOperator fromTT = v -> ttToScore(v, depth, maxDepth, evaluator);
+		private final IntUnaryOperator toTT = v -> scoreToTT(v, depth, maxDepth, evaluator);
+		/** The move currently searched at this ply (null if it is a null move). */
+		private M move;
+		/** true if a null move is currently searched at this ply. */
+		private boolean nullMove;
+		/** The best move found by the last search of this ply (null if no move was searched). */
+		private M bestMove;
+		/** The moves deferred by ABDADA because they were searched by another thread. */
+		private final List<M> deferred = new ArrayList<>();
+		
+		private Ply(Plies plies) {
+			this.plies = plies;
+		}
+		
+		private Ply set(int depth, int maxDepth, Evaluator<M, B> evaluator) {
+			this.depth = depth;
+			this.maxDepth = maxDepth;
+			this.evaluator = evaluator;
+			this.nullMove = false;
+			this.bestMove = null;
+			this.deferred.clear();
+			return this;
+		}
+	}
+	
+	/** A node whose moves are searched in parallel by the <a href="https://www.chessprogramming.org/Young_Brothers_Wait_Concept">young brothers wait concept</a>. */
+	private final class SplitPoint {
+		/** The context of the node, it is not modified during the parallel search, the tasks search copies of this context. */
+		private final SearchContext<M, B> context;
+		private final int depth;
+		private final int maxDepth;
+		private final AtomicInteger alpha;
+		private final int beta;
+		private volatile boolean cutoff;
+		private int value = Integer.MIN_VALUE;
+		private M bestMove;
+		
+		private SplitPoint(SearchContext<M, B> context, int depth, int maxDepth, int alpha, int beta) {
+			this.context = context;
+			this.depth = depth;
+			this.maxDepth = maxDepth;
+			this.alpha = new AtomicInteger(alpha);
+			this.beta = beta;
+		}
+		
+		private synchronized void update(M move, int score) {
+			if (score>value) {
+				value = score;
+				bestMove = move;
+			}
+		}
+	}
+	
+	/** The search of a move of a {@link SplitPoint}. */
+	private final class SplitTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final transient SplitPoint split;
+		private final transient M move;
+		private final int reduction;
+		
+		private SplitTask(SplitPoint split, M move, int reduction) {
+			this.split = split;
+			this.move = move;
+			this.reduction = reduction;
+		}
+
+		@Override
+		protected void compute() {
+			if (split.cutoff || isInterrupted()) {
+				// A brother caused a beta cutoff, this move is useless
+				return;
+			}
+			SplitContexts threadContexts = splitContexts.get();
+			if (threadContexts==null) {
+				threadContexts = new SplitContexts();
+				splitContexts.set(threadContexts);
+			}
+			// The current thread may be searching another node (a task can be stolen while joining a task), save its context
+			final SearchContext<M, B> previous = threadContexts.current;
+			final SearchContext<M, B> context = threadContexts.enter(split.context);
+			try {
+				// The children read the move of their parent ply (for instance, to get countermoves), set it in this thread's plies
+				final Ply ply = getPlies(context).get(split.maxDepth-split.depth);
+				ply.nullMove = false;
+				ply.move = move;
+				if (context.makeMove(move, MoveConfidence.PSEUDO_LEGAL)) {
+					context.getStatistics().movePlayed();
+					final int alpha = split.alpha.get();
+					final int score = searchChild(split.depth, split.maxDepth, alpha, split.beta, false, reduction);
+					context.unmakeMove();
+					if (!isInterrupted()) {
+						split.update(move, score);
+						if (score>alpha) {
+							split.alpha.accumulateAndGet(score, Math::max);
+						}
+						if (score>=split.beta) {
+							split.cutoff = true;
+						}
+					}
+				}
+			} finally {
+				threadContexts.leave(previous);
+			}
+		}
+	}
+	
+	/** The contexts a thread uses to search the moves of {@link SplitPoint}s.
+	 * <br>They are reused from one split point to another, with their plies. As a thread can search a move of a split point while it waits
+	 * for the end of another split point's search, it has one context per nesting level.
+	 */
+	private final class SplitContexts {
+		private final List<SearchContext<M, B>> contexts = new ArrayList<>();
+		private int level;
+		/** The context currently used by the thread, null if it is not searching a split point's move. */
+		private SearchContext<M, B> current;
+		
+		/** Gets the context of the next nesting level, synchronized with a split point's context. */
+		private SearchContext<M, B> enter(SearchContext<M, B> source) {
+			synchronized (source) {
+				if (level==contexts.size()) {
+					contexts.add(source.fork());
+				} else {
+					contexts.get(level).copyFrom(source);
+				}
+			}
+			current = contexts.get(level++);
+			return current;
+		}
+		
+		private void leave(SearchContext<M, B> previous) {
+			level--;
+			current = previous;
+		}
+	}
+	
+	/** The per thread plies, attached to the search context. */
+	private final class Plies {
+		private final List<Ply> list = new ArrayList<>();
+		private final KillerMoves<M> killers = new KillerMoves<>();
+		private final CounterMoves<M> counters = new CounterMoves<>();
+		/** The search epoch of the killers and countermoves (see {@link Negamax#epoch}). */
+		private int epoch = Negamax.this.epoch;
+		
+		private Negamax<M, B> getOwner() {
+			return Negamax.this;
+		}
+		
+		private Ply get(int ply) {
+			while (list.size()<=ply) {
+				list.add(new Ply(this));
+			}
+			return list.get(ply);
+		}
+	}
+	
     private TranspositionTable<M, B> transpositionTable;
     private QuiesceEvaluator<M,B> quiesceEvaluator;
+    private boolean pvs;
+    private boolean killerMoves;
+    private HistoryHeuristic<M> history;
+    private int nullMoveReduction;
+    private LateMoveReductions lmr;
+    private int futilityPruningDepth;
+    private int iidMinDepth;
+    private int iidReduction;
+    private boolean mateDistancePruning;
+    /** Incremented when a new root position is searched, in order to clear the killers and countermoves of every thread. */
+    private int epoch;
+    private long rootKey;
+    /** The depth of the last root search, in order to age the history once per depth. */
+    private int historyDepth;
+    private ForkJoinPool ybwcPool;
+    private int ybwcMinDepth;
+    private AbdadaTable abdada;
+    private int abdadaMinDepth;
+    /** The contexts of the threads that are searching a move of a {@link SplitPoint}. */
+    private final ThreadLocal<SplitContexts> splitContexts = new ThreadLocal<>();
     
 	/** Constructor
 	 * @param exec The execution context
@@ -37,6 +242,21 @@ public class Negamax<M,B extends MoveGenerator<M>> extends AbstractAI<M,B> imple
 		};
 	}
 
+	/** {@inheritDoc}
+	 * <br>When the young brothers wait concept is enabled (see {@link #setYoungBrothersWait(ForkJoinPool, int)}), the threads of the pool
+	 * that search moves in parallel have their own contexts, copied from the context of the searched node.
+	 */
+	@Override
+	public SearchContext<M, B> getContext() {
+		if (ybwcPool!=null) {
+			final SplitContexts threadContexts = splitContexts.get();
+			if (threadContexts!=null && threadContexts.current!=null) {
+				return threadContexts.current;
+			}
+		}
+		return super.getContext();
+	}
+
 	@Override
     public SearchResult<M> getBestMoves(DepthFirstSearchParameters params) {
 		final SearchResult<M> result = super.getBestMoves(params);
@@ -44,14 +264,44 @@ public class Negamax<M,B extends MoveGenerator<M>> extends AbstractAI<M,B> imple
 		if ((getContext().getGamePosition() instanceof HashProvider hp) && transpositionTable!=null && !isInterrupted() && !result.getList().isEmpty()) {
 			// Store best move info in table
 			final EvaluatedMove<M> best = result.getList().get(0);
-			transpositionTable.store(hp.getHashKey(), EntryType.EXACT, params.getDepth(), best.getScore(), best.getMove(), p->true);
+			final EntryType type;
+			if (best.getScore()>=params.getWindowHigh()) {
+				type = EntryType.LOWER_BOUND;
+			} else if (best.getScore()<=params.getWindowLow()) {
+				type = EntryType.UPPER_BOUND;
+			} else {
+				type = EntryType.EXACT;
+			}
+			transpositionTable.store(hp.getHashKey(), type, params.getDepth(), best.getScore(), best.getMove(), p->true);
 		}
 		return result;
     }
 
+	@Override
+	public SearchResult<M> getBestMoves(List<M> moves, DepthFirstSearchParameters params) {
+		final B position = getContext().getGamePosition();
+		final boolean newRootKey = position instanceof HashProvider hp && (epoch==0 || hp.getHashKey()!=rootKey);
+		if (!(position instanceof HashProvider) || newRootKey) {
+			// New root position, killers and countermoves of previous searches are irrelevant
+			epoch++;
+			rootKey = position instanceof HashProvider hp ? hp.getHashKey() : 0;
+		}
+		if (history!=null && (newRootKey || params.getDepth()!=historyDepth)) {
+			// Age the history once per depth, not at each re-search of the same depth (for instance with an aspiration window)
+			history.newIteration();
+		}
+		historyDepth = params.getDepth();
+		return super.getBestMoves(moves, params);
+	}
+
 	@Override
 	protected int getRootScore(final int depth, int lowestInterestingScore) {
-		return -negamax(depth-1, depth, -Integer.MAX_VALUE, -lowestInterestingScore);
+		return getRootScore(depth, lowestInterestingScore, Integer.MAX_VALUE);
+	}
+
+	@Override
+	protected int getRootScore(final int depth, int lowestInterestingScore, int highestInterestingScore) {
+		return -negamax(depth-1, depth, -highestInterestingScore, -lowestInterestingScore);
 	}
 	
 	/** Gets the evaluation of the position after <a href="https://en.wikipedia.org/wiki/Quiescence_search">quiescence search</a>.
@@ -82,15 +332,29 @@ public class Negamax<M,B extends MoveGenerator<M>> extends AbstractAI<M,B> imple
     	if (fastAnalysisStatus!=Status.PLAYING) {
     		return getScore(evaluator, fastAnalysisStatus, depth, maxDepth);
     	}
+    	if (mateDistancePruning) {
+    		// Mate distance pruning, the best score is a win at next move, the worst is a loose at this move
+    		final int fromRoot = maxDepth-depth;
+    		alpha = Math.max(alpha, -evaluator.getWinScore(fromRoot));
+    		beta = Math.min(beta, evaluator.getWinScore(fromRoot+1));
+    		if (alpha>=beta) {
+    			return alpha;
+    		}
+    	}
 
 		final boolean keyProvider = (position instanceof HashProvider) && transpositionTable!=null;
 		final long key;
 		final AlphaBetaState<M> state;
+		final Ply ply = getPly(context, depth, maxDepth, evaluator);
 		if (keyProvider) {
 			key = ((HashProvider)position).getHashKey();
-			TranspositionTableEntry<M> entry = transpositionTable.get(key);
-			state = transpositionTable.getPolicy().accept(entry, depth, alpha, beta, v -> ttToScore(v, depth, maxDepth, evaluator));
+			ply.entry = transpositionTable.get(key, ply.entry);
+			state = transpositionTable.getPolicy().accept(ply.entry, ply.state.reset(depth, alpha, beta), ply.fromTT);
 			if (state.isValueSet()) {
+				final TranspositionTableStatistics ttStatistics = transpositionTable.getStatistics();
+				if (ttStatistics!=null) {
+					ttStatistics.cutoffDone();
+				}
 				return state.getValue();
 			} else if (state.isAlphaBetaUpdated()) {
 				alpha = state.getAlphaUpdated();
@@ -103,18 +367,62 @@ public class Negamax<M,B extends MoveGenerator<M>> extends AbstractAI<M,B> imple
      	if (depth == 0 || isInterrupted()) {
 			return quiesce(maxDepth, alpha, beta);
         }
+     	// Static evaluation + futility margin, Long.MIN_VALUE if futility pruning is disabled
+     	long futilityValue = Long.MIN_VALUE;
+     	if (depth<=futilityPruningDepth && (long)beta-alpha==1) {
+     		// Principal variation nodes are never pruned, their scores should be exact
+     		final int reverseFutilityMargin = evaluator.getReverseFutilityMargin(position, depth);
+     		final int razoringMargin = evaluator.getRazoringMargin(position, depth);
+     		final int futilityMargin = evaluator.getFutilityMargin(position, depth);
+     		if (reverseFutilityMargin!=Integer.MAX_VALUE || razoringMargin!=Integer.MAX_VALUE || futilityMargin!=Integer.MAX_VALUE) {
+	     		getStatistics().evaluationDone();
+	     		final int staticEvaluation = evaluator.evaluate(position);
+	     		if (reverseFutilityMargin!=Integer.MAX_VALUE && !evaluator.isWinLooseScore(beta) && (long)staticEvaluation-reverseFutilityMargin>=beta) {
+	     			// Reverse futility pruning, the position is so good that the node will very probably fail high
+	     			return staticEvaluation-reverseFutilityMargin;
+	     		}
+	     		if (razoringMargin!=Integer.MAX_VALUE && !evaluator.isWinLooseScore(alpha) && (long)staticEvaluation+razoringMargin<alpha) {
+	     			// Razoring, the position is so bad that only tactical moves could raise alpha
+	     			final int score = quiesce(maxDepth-depth, alpha-1, alpha);
+	     			if (score<alpha) {
+	     				return score;
+	     			}
+	     		}
+	     		if (futilityMargin!=Integer.MAX_VALUE) {
+	     			futilityValue = (long)staticEvaluation+futilityMargin;
+	     		}
+     		}
+     	}
+     	if (isNullMoveCutoff(position, ply, alpha, beta)) {
+     		return beta;
+     	}
 
         int value = Integer.MIN_VALUE;
         M bestMove = null;
         boolean noValidMove = true;
-    	final M moveFromTT = state!=null ? state.getBestMove() : null;
+        int moveIndex = 0;
+    	M moveFromTT = state!=null ? state.getBestMove() : null;
+    	if (moveFromTT==null && iidMinDepth>0 && depth>=iidMinDepth && (long)beta-alpha>1) {
+    		// Internal iterative deepening, a reduced depth search gives a good first move
+    		final int stateAlpha = ply.state.getAlpha();
+    		final int stateBeta = ply.state.getBeta();
+    		// Reduce maxDepth as much as depth in order to keep the number of half moves from the root unchanged
+    		negamax(depth-iidReduction, maxDepth-iidReduction, alpha, beta);
+    		final M iidMove = ply.bestMove;
+    		// The reduced search used the same ply, restore it
+    		ply.set(depth, maxDepth, evaluator);
+    		ply.state.reset(depth, stateAlpha, stateBeta);
+    		moveFromTT = isInterrupted() ? null : iidMove;
+    	}
     	boolean moveFromTTBreaks = false;
-    	if (moveFromTT!=null && getContext().makeMove(moveFromTT, MoveConfidence.UNSAFE)) {
+    	if (moveFromTT!=null && context.makeMove(moveFromTT, MoveConfidence.UNSAFE)) {
     		// Try move from TT
         	noValidMove = false;
+        	moveIndex++;
+        	ply.move = moveFromTT;
             getStatistics().moveFromTTPlayed();
             final int score = -negamax(depth-1, maxDepth, -beta, -alpha);
-            getContext().unmakeMove();
+            context.unmakeMove();
             if (score > value) {
                 value = score;
                 bestMove = moveFromTT;
@@ -129,18 +437,75 @@ public class Negamax<M,B extends MoveGenerator<M>> extends AbstractAI<M,B> imple
     	if (!moveFromTTBreaks) {
     		final List<M> moves = position.getMoves();
         	getStatistics().movesGenerated(moves.size());
-	        for (M move : moves) {
-	            if (!move.equals(moveFromTT) && getContext().makeMove(move, MoveConfidence.PSEUDO_LEGAL)) {
+        	if (killerMoves || history!=null) {
+        		orderQuietMoves(moves, ply);
+        	}
+	        // The moves deferred by ABDADA are searched after the other moves
+	        for (int i = 0; i < moves.size()+ply.deferred.size(); i++) {
+	        	final boolean deferredMove = i>=moves.size();
+	        	final M move = deferredMove ? ply.deferred.get(i-moves.size()) : moves.get(i);
+	        	if (!deferredMove && move.equals(moveFromTT)) {
+	        		continue;
+	        	}
+	        	if (ybwcPool!=null && !noValidMove && depth>=ybwcMinDepth && i<moves.size()-1) {
+	        		// Young brothers wait concept, the eldest brother is searched, search the other moves in parallel
+	        		final SplitPoint split = split(moves, i, moveFromTT, ply, moveIndex, alpha, beta, futilityValue);
+	        		if (split.value > value) {
+	        			value = split.value;
+	        			if (split.bestMove!=null) {
+	        				bestMove = split.bestMove;
+	        			}
+	        			if (value > alpha) {
+	        				alpha = value;
+	        				if (value >= beta && (killerMoves || history!=null)) {
+	        					cutoffDone(moves, ply, bestMove);
+	        				}
+	        			}
+	        		}
+	        		break;
+	        	}
+	        	if (!noValidMove && isFutile(futilityValue, alpha, evaluator, position, moves, move)) {
+	        		// Futility pruning, the move can't raise alpha (at least one move is searched in order to not confuse pruned moves with no valid move)
+	        		if (futilityValue>value) {
+	        			value = (int)futilityValue;
+	        		}
+	        		continue;
+	        	}
+	        	final int reduction = getReduction(moves, move, depth, moveIndex);
+	            if (context.makeMove(move, MoveConfidence.PSEUDO_LEGAL)) {
+	            	final boolean firstMove = noValidMove;
+	            	final long childKey = firstMove || deferredMove ? 0 : getAbdadaKey(position, depth);
+	            	if (childKey!=0 && abdada.isSearched(childKey)) {
+	            		// ABDADA, another thread is searching the position, search it later
+	            		context.unmakeMove();
+	            		ply.deferred.add(move);
+	            		continue;
+	            	}
 	            	noValidMove = false;
+	            	moveIndex++;
+	            	ply.move = move;
 		            getStatistics().movePlayed();
-		            final int score = -negamax(depth-1, maxDepth, -beta, -alpha);
-		            getContext().unmakeMove();
+		            final int score;
+		            if (childKey!=0) {
+		            	abdada.enter(childKey);
+		            	try {
+		            		score = searchChild(depth, maxDepth, alpha, beta, firstMove, reduction);
+		            	} finally {
+		            		abdada.leave(childKey);
+		            	}
+		            } else {
+		            	score = searchChild(depth, maxDepth, alpha, beta, firstMove, reduction);
+		            }
+		            context.unmakeMove();
 		            if (score > value) {
 		                value = score;
 		                bestMove = move;
 		                if (score > alpha) {
 		                	alpha = score;
 		                    if (score >= beta) {
+		                    	if (killerMoves || history!=null) {
+		                    		cutoffDone(moves, ply, move);
+		                    	}
 		                    	break;
 		                    }
 		                }
@@ -157,16 +522,231 @@ public class Negamax<M,B extends MoveGenerator<M>> extends AbstractAI<M,B> imple
 	         }
     	}
         
+        ply.bestMove = bestMove;
         if (keyProvider && !isInterrupted()) {
         	// If a transposition table is available
         	state.setValue(value);
         	state.updateAlphaBeta(alpha, beta);
         	state.setBestMove(bestMove);
-        	transpositionTable.getPolicy().store(transpositionTable, key, state, v -> scoreToTT(v, depth, maxDepth, evaluator));
+        	transpositionTable.getPolicy().store(transpositionTable, key, state, ply.toTT);
         }
         return value;
     }
     
+    /** Gets the key of the current position to record in the ABDADA table.
+     * @return the position's hash key, or 0 if ABDADA is disabled at this depth or the position has no hash key.
+     */
+    private long getAbdadaKey(B position, int depth) {
+    	return abdada!=null && depth>=abdadaMinDepth && (position instanceof HashProvider hp) ? hp.getHashKey() : 0;
+    }
+
+    /** Gets the reusable objects of the current thread for a ply (number of half moves from the root of the search).
+     * <br>As the ply increases at each recursive call, there's no risk to have two nodes of the same branch sharing the same objects. 
+     */
+    private Ply getPly(SearchContext<M, B> context, int depth, int maxDepth, Evaluator<M, B> evaluator) {
+    	return getPlies(context).get(maxDepth-depth).set(depth, maxDepth, evaluator);
+    }
+    
+    /** Gets the plies attached to a context, attaches new plies if the context has no plies of this instance.
+     */
+    private Plies getPlies(SearchContext<M, B> context) {
+    	final Plies plies;
+    	if (context.getAttachment() instanceof Negamax<?,?>.Plies p && p.getOwner()==this) {
+    		@SuppressWarnings("unchecked")
+			final Plies owned = (Plies) p;
+    		plies = owned;
+    	} else {
+    		plies = new Plies();
+    		context.setAttachment(plies);
+    	}
+    	if (plies.epoch!=epoch) {
+    		plies.killers.clear();
+    		plies.counters.clear();
+    		plies.epoch = epoch;
+    	}
+    	return plies;
+    }
+    
+    /** Performs <a href="https://www.chessprogramming.org/Null_Move_Pruning">null move pruning</a>.
+     * <br>The current player passes its turn and the position is searched with a reduced depth and a null window.
+     * If, even after passing, the score is greater than or equal to beta, the node will very probably fail high.
+     * <br>Null move pruning is only performed at nodes searched with a null window, the scores of the principal variation nodes should be exact.
+     * @return true if the node can be pruned
+     */
+    private boolean isNullMoveCutoff(B position, Ply ply, int alpha, int beta) {
+    	if (nullMoveReduction==0 || ply.depth<=nullMoveReduction || (long)beta-alpha!=1 || ply.evaluator.isWinLooseScore(beta) ||
+    			isAfterNullMove(ply) || !position.isNullMoveSupported() || !getContext().makeNullMove()) {
+    		return false;
+    	}
+    	ply.move = null;
+    	ply.nullMove = true;
+    	// Reduce maxDepth as much as depth in order to keep the number of half moves from the root unchanged
+    	final int score = -negamax(ply.depth-1-nullMoveReduction, ply.maxDepth-nullMoveReduction, -beta, -beta+1);
+    	getContext().unmakeNullMove();
+    	ply.nullMove = false;
+    	return score>=beta && !isInterrupted();
+    }
+    
+    /** Checks whether a ply was reached by a null move (two consecutive null moves are useless).
+     */
+    private boolean isAfterNullMove(Ply ply) {
+    	final int fromRoot = ply.maxDepth-ply.depth;
+    	return fromRoot>1 && ply.plies.get(fromRoot-1).nullMove;
+    }
+    
+    /** Gets the move searched by the parent node of a ply.
+     * @return a move or null if the ply's node is a child of the root (the root moves are searched by {@link AbstractAI}).
+     */
+    private M getPreviousMove(Ply ply) {
+    	final int fromRoot = ply.maxDepth-ply.depth;
+    	return fromRoot>1 ? ply.plies.get(fromRoot-1).move : null;
+    }
+    
+    /** Sorts the quiet moves of a node using the history heuristic, then moves the killer moves and the countermove before the other quiet moves.
+     * <br>This only works if the moves are in a {@link MoveList}, quiet moves are those excluded from the sort by its comparator.
+     */
+    private void orderQuietMoves(List<M> moves, Ply ply) {
+    	if (!(moves instanceof MoveList<M> moveList)) {
+    		return;
+    	}
+    	if (history!=null) {
+    		moveList.sortExcluded(history.getComparator());
+    	}
+    	if (killerMoves) {
+    		final M previous = getPreviousMove(ply);
+    		final M counter = previous==null ? null : ply.plies.counters.get(previous);
+    		if (counter!=null) {
+    			moveList.promote(counter);
+    		}
+    		final int fromRoot = ply.maxDepth-ply.depth;
+    		for (int i = KillerMoves.SLOTS-1; i >= 0; i--) {
+    			final M killer = ply.plies.killers.get(fromRoot, i);
+    			if (killer!=null) {
+    				moveList.promote(killer);
+    			}
+    		}
+    	}
+    }
+    
+    /** Records a move that caused a beta cutoff in the killer moves, countermoves and history tables.
+     * <br>Moves sorted by a {@link MoveList} comparator (typically captures) are not recorded, as they are already tried early.
+     */
+    private void cutoffDone(List<M> moves, Ply ply, M move) {
+    	if (isSorted(moves, move)) {
+    		return;
+    	}
+    	if (history!=null) {
+    		history.cutoffDone(move, ply.depth);
+    	}
+    	if (killerMoves) {
+	    	ply.plies.killers.add(ply.maxDepth-ply.depth, move);
+	    	final M previous = getPreviousMove(ply);
+	    	if (previous!=null) {
+	    		ply.plies.counters.set(previous, move);
+	    	}
+    	}
+    }
+    
+    /** Checks whether a move is sorted by the comparator of a {@link MoveList} (typically, a capture).
+     */
+    private boolean isSorted(List<M> moves, M move) {
+    	return moves instanceof MoveList<M> moveList && moveList.getComparator().test(move);
+    }
+    
+    /** Searches, in parallel, the moves of a node, starting at a move index.
+     * <br>The moves that are pruned by futility pruning are not searched (but their futility value is taken into account in the split point value).
+     * @return The split point, once all its moves are searched. Its value is Integer.MIN_VALUE if no move was searched.
+     */
+    private SplitPoint split(List<M> moves, int from, M moveFromTT, Ply ply, int moveIndex, int alpha, int beta, long futilityValue) {
+    	final SearchContext<M, B> context = getContext();
+    	final SplitPoint split = new SplitPoint(context, ply.depth, ply.maxDepth, alpha, beta);
+    	final List<SplitTask> tasks = new ArrayList<>(moves.size()-from);
+    	for (int i = from; i < moves.size(); i++) {
+    		final M move = moves.get(i);
+    		if (move.equals(moveFromTT)) {
+    			continue;
+    		}
+    		if (isFutile(futilityValue, alpha, ply.evaluator, context.getGamePosition(), moves, move)) {
+    			split.value = Math.max(split.value, (int)futilityValue);
+    		} else {
+    			tasks.add(new SplitTask(split, move, getReduction(moves, move, ply.depth, moveIndex+tasks.size())));
+    		}
+    	}
+    	if (ForkJoinTask.inForkJoinPool() && ForkJoinTask.getPool()==ybwcPool) {
+    		ForkJoinTask.invokeAll(tasks);
+    	} else {
+    		ybwcPool.invoke(new RecursiveAction() {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected void compute() {
+					invokeAll(tasks);
+				}
+			});
+    	}
+    	return split;
+    }
+    
+    /** Checks whether a move should be pruned by futility pruning.
+     * @param futilityValue The static evaluation plus the futility margin, Long.MIN_VALUE if futility pruning is disabled
+     */
+    private boolean isFutile(long futilityValue, int alpha, Evaluator<M, B> evaluator, B position, List<M> moves, M move) {
+    	return futilityValue!=Long.MIN_VALUE && futilityValue<=alpha && !evaluator.isWinLooseScore(alpha) && isPrunable(position, moves, move);
+    }
+    
+    /** Checks whether a move can be pruned by futility pruning.
+     * <br>Moves sorted by a {@link MoveList} comparator and tactical moves (see {@link MoveGenerator#isTactical(Object)}) can't be pruned.
+     */
+    private boolean isPrunable(B position, List<M> moves, M move) {
+    	return !isSorted(moves, move) && !position.isTactical(move);
+    }
+    
+    /** Gets the late move reduction of a move.
+     * <br>Moves sorted by a {@link MoveList} comparator (typically captures) and moves that the game position marks as not reducible (see {@link MoveGenerator#isReducible(Object)}) are not reduced.
+     * @return the reduction, 0 if the move should be searched at full depth
+     */
+    private int getReduction(List<M> moves, M move, int depth, int moveIndex) {
+    	if (lmr==null) {
+    		return 0;
+    	}
+    	final int reduction = lmr.getReduction(depth, moveIndex);
+    	if (reduction==0 || isSorted(moves, move) || !getContext().getGamePosition().isReducible(move)) {
+    		return 0;
+    	}
+    	return reduction;
+    }
+    
+    /** Searches the position reached after a move was played.
+     * <br>If the move is reduced, it is first searched at a reduced depth with a null window. If its score is greater than alpha, it is searched again at full depth.
+     * <br>If {@link #isPrincipalVariationSearch() PVS} is enabled, moves other than the first one are searched with a null window.
+     * They are searched again with the full window only if their score falls between alpha and beta.
+     * @param depth The depth of the node where the move was played
+     * @param maxDepth The maximum depth of the search
+     * @param alpha The alpha value of the node where the move was played
+     * @param beta The beta value of the node where the move was played
+     * @param firstMove true if the move is the first move searched in its node
+     * @param reduction The late move reduction of the move (0 if the move is not reduced)
+     * @return the score of the move, from the point of view of the player who played it
+     */
+    private int searchChild(int depth, int maxDepth, int alpha, int beta, boolean firstMove, int reduction) {
+    	if (reduction>0) {
+    		// Reduce maxDepth as much as depth in order to keep the number of half moves from the root unchanged
+        	final int score = -negamax(depth-1-reduction, maxDepth-reduction, -alpha-1, -alpha);
+        	if (score<=alpha || isInterrupted()) {
+        		return score;
+        	}
+    	}
+    	if (!pvs || firstMove || (long)beta-alpha<=1) {
+    		return -negamax(depth-1, maxDepth, -beta, -alpha);
+    	}
+    	final int score = -negamax(depth-1, maxDepth, -alpha-1, -alpha);
+    	if (score>alpha && score<beta && !isInterrupted()) {
+    		// The null window search failed high, the move could be better than the current best one
+    		return -negamax(depth-1, maxDepth, -beta, -alpha);
+    	}
+    	return score;
+    }
+    
     @Override
     public final TranspositionTable<M, B> getTranspositionTable() {
     	return transpositionTable;
@@ -177,6 +757,252 @@ public class Negamax<M,B extends MoveGenerator<M>> extends AbstractAI<M,B> imple
     	this.transpositionTable = table;
     }
 
+	/** Checks whether this instance performs a <a href="https://www.chessprogramming.org/Principal_Variation_Search">Principal Variation Search</a>.
+	 * @return true if PVS is enabled, false (the default) if all moves are searched with the full alpha beta window.
+	 */
+	public boolean isPrincipalVariationSearch() {
+		return pvs;
+	}
+
+	/** Enables or disables <a href="https://www.chessprogramming.org/Principal_Variation_Search">Principal Variation Search</a>.
+	 * <br>When PVS is enabled, once the first move of a node is searched, other moves are searched with a null window, which is a lot faster.
+	 * Moves that fail high are searched again with the full window. On well ordered trees (see {@link MoveGenerator#getMoves()}), this reduces the number of searched nodes.
+	 * <br>In theory, PVS does not change the search result, only the number of searched nodes.
+	 * @param pvs true to enable PVS, false to disable it
+	 */
+	public void setPrincipalVariationSearch(boolean pvs) {
+		this.pvs = pvs;
+	}
+
+	/** Checks whether this instance uses killer moves and countermoves to order the moves.
+	 * @return true if killer moves are enabled, false (the default) if they are not.
+	 */
+	public boolean isKillerMoves() {
+		return killerMoves;
+	}
+
+	/** Enables or disables the <a href="https://www.chessprogramming.org/Killer_Heuristic">killer moves</a>
+	 * and <a href="https://www.chessprogramming.org/Countermove_Heuristic">countermoves</a> heuristics.
+	 * <br>When enabled, the moves that caused a beta cutoff are remembered by each search thread, per ply and per previous move,
+	 * and are searched before the other quiet moves of the nodes where they are legal.
+	 * <br>Moves are reordered only if {@link MoveGenerator#getMoves()} returns a {@link MoveList}; Quiet moves are the moves excluded from the sort by its comparator
+	 * (see {@link MoveList#promote(Object)}).
+	 * <br>In theory, these heuristics do not change the search result, only the number of searched nodes.
+	 * @param killerMoves true to enable killer moves, false to disable them
+	 */
+	public void setKillerMoves(boolean killerMoves) {
+		this.killerMoves = killerMoves;
+	}
+
+	/** Gets the history heuristic used to order the quiet moves.
+	 * @return a history heuristic or null (the default) if the history heuristic is not used.
+	 */
+	public HistoryHeuristic<M> getHistory() {
+		return history;
+	}
+
+	/** Sets the <a href="https://www.chessprogramming.org/History_Heuristic">history heuristic</a> used to order the quiet moves.
+	 * <br>When set, the moves that caused a beta cutoff are scored in the history, and the quiet moves of every node are sorted by decreasing score
+	 * (before the killer moves are promoted, if enabled).
+	 * As for {@link #setKillerMoves(boolean)}, moves are reordered only if {@link MoveGenerator#getMoves()} returns a {@link MoveList}.
+	 * <br>The history is aged when {@link #getBestMoves(List, DepthFirstSearchParameters)} starts a search at a new depth or on a new root position
+	 * (re-searches of the same depth, for instance with an aspiration window, do not age it), so it can be kept
+	 * across all the iterations of an {@link com.fathzer.games.ai.iterativedeepening.IterativeDeepeningSearch}.
+	 * @param history The history heuristic, null to disable it
+	 */
+	public void setHistory(HistoryHeuristic<M> history) {
+		this.history = history;
+	}
+
+	/** Gets the depth reduction of null move searches.
+	 * @return a positive int, 0 (the default) if null move pruning is disabled.
+	 */
+	public int getNullMoveReduction() {
+		return nullMoveReduction;
+	}
+
+	/** Sets the depth reduction of the <a href="https://www.chessprogramming.org/Null_Move_Pruning">null move pruning</a>.
+	 * <br>When enabled, before searching the moves of a node, the current player passes its turn and the position is searched at <i>depth-1-reduction</i> with a null window.
+	 * If the score is still greater than or equal to beta, the node is pruned.
+	 * <br>Only the nodes searched with a null window are pruned, so null move pruning is mostly useful with {@link #setPrincipalVariationSearch(boolean) PVS}.
+	 * <br>This requires the game position to support null moves (see {@link MoveGenerator#isNullMoveSupported()}). The game position is also responsible
+	 * for refusing null moves in positions where they are dangerous (see {@link MoveGenerator#makeNullMove()}).
+	 * <br>Unlike {@link #setPrincipalVariationSearch(boolean) PVS}, null move pruning can change the search result, typically in <a href="https://www.chessprogramming.org/Zugzwang">zugzwang</a> positions.
+	 * A typical reduction in chess is 2 or 3.
+	 * @param reduction The reduction, 0 to disable null move pruning
+	 * @throws IllegalArgumentException if reduction is negative
+	 */
+	public void setNullMoveReduction(int reduction) {
+		if (reduction<0) {
+			throw new IllegalArgumentException();
+		}
+		this.nullMoveReduction = reduction;
+	}
+
+	/** Gets the late move reductions.
+	 * @return The late move reductions or null (the default) if late move reductions are disabled.
+	 */
+	public LateMoveReductions getLateMoveReductions() {
+		return lmr;
+	}
+
+	/** Sets the <a href="https://www.chessprogramming.org/Late_Move_Reductions">late move reductions</a>.
+	 * <br>When enabled, the moves searched after the first ones of a node are searched with a reduced depth and a null window.
+	 * If a reduced move unexpectedly raises alpha, it is searched again at full depth.
+	 * <br>As moves searched late are supposed to be bad moves, late move reductions work well only if moves are well ordered (see {@link MoveGenerator#getMoves()}).
+	 * Moves sorted by the comparator of a {@link MoveList} and moves marked as not reducible by the game position (see {@link MoveGenerator#isReducible(Object)}) are never reduced.
+	 * <br>Like null move pruning, late move reductions can change the search result.
+	 * @param lmr The late move reductions, null to disable them
+	 */
+	public void setLateMoveReductions(LateMoveReductions lmr) {
+		this.lmr = lmr;
+	}
+
+	/** Gets the maximum remaining depth of the nodes where futility pruning, reverse futility pruning and razoring are performed.
+	 * @return a positive int, 0 (the default) if they are disabled.
+	 */
+	public int getFutilityPruningDepth() {
+		return futilityPruningDepth;
+	}
+
+	/** Enables or disables <a href="https://www.chessprogramming.org/Futility_Pruning">futility pruning</a>, <a href="https://www.chessprogramming.org/Reverse_Futility_Pruning">reverse futility pruning</a>
+	 * and <a href="https://www.chessprogramming.org/Razoring">razoring</a>.
+	 * <br>When enabled, the nodes searched with a null window whose remaining depth is less than or equal to <i>maxDepth</i> are pruned using the margins
+	 * returned by the evaluator (see {@link Evaluator#getFutilityMargin(Object, int)}, {@link Evaluator#getReverseFutilityMargin(Object, int)}
+	 * and {@link Evaluator#getRazoringMargin(Object, int)}). The margins are not requested at other nodes.
+	 * <br>The evaluator is responsible for disabling these prunings in positions where they are dangerous, typically, in chess, when the king is in check
+	 * (Negamax has no way to know it).
+	 * <br>The principal variation nodes are never pruned, so these prunings are mostly useful with {@link #setPrincipalVariationSearch(boolean) PVS}.
+	 * <br>As {@link #setNullMoveReduction(int) null move pruning}, they can change the search result.
+	 * @param maxDepth The maximum remaining depth, 0 to disable these prunings
+	 * @throws IllegalArgumentException if maxDepth is negative
+	 */
+	public void setFutilityPruningDepth(int maxDepth) {
+		if (maxDepth<0) {
+			throw new IllegalArgumentException();
+		}
+		this.futilityPruningDepth = maxDepth;
+	}
+
+	/** Gets the minimum remaining depth at which internal iterative deepening is performed.
+	 * @return a positive int, 0 (the default) if internal iterative deepening is disabled
+	 */
+	public int getIIDMinDepth() {
+		return iidMinDepth;
+	}
+
+	/** Gets the depth reduction of internal iterative deepening searches.
+	 * @return a positive int, 0 if internal iterative deepening is disabled
+	 */
+	public int getIIDReduction() {
+		return iidReduction;
+	}
+
+	/** Enables or disables <a href="https://www.chessprogramming.org/Internal_Iterative_Deepening">internal iterative deepening</a> (IID).
+	 * <br>When enabled, if a node with no move in the transposition table and a non null window has a remaining depth greater than or equal to <i>minDepth</i>,
+	 * a search with a reduced depth is performed first. The best move of this search is then searched first by the full depth search.
+	 * <br>This restores a good move ordering when the transposition table does not contain the position (for instance, because its entry was overwritten).
+	 * It is useless if no transposition table is used.
+	 * <br>In theory, IID does not change the search result, only the number of searched nodes.
+	 * @param minDepth The minimum remaining depth, 0 to disable IID.
+	 * @param reduction The depth reduction of the IID search (typically 2).
+	 * @throws IllegalArgumentException if <i>minDepth</i> is negative, or if <i>minDepth</i> is positive and <i>reduction</i> is not in [1, <i>minDepth</i>[.
+	 */
+	public void setInternalIterativeDeepening(int minDepth, int reduction) {
+		if (minDepth<0 || (minDepth>0 && (reduction<1 || reduction>=minDepth))) {
+			throw new IllegalArgumentException();
+		}
+		this.iidMinDepth = minDepth;
+		this.iidReduction = minDepth==0 ? 0 : reduction;
+	}
+
+	/** Checks whether this instance performs <a href="https://www.chessprogramming.org/Mate_Distance_Pruning">mate distance pruning</a>.
+	 * @return true if mate distance pruning is enabled, false (the default) if it is not.
+	 */
+	public boolean isMateDistancePruning() {
+		return mateDistancePruning;
+	}
+
+	/** Enables or disables <a href="https://www.chessprogramming.org/Mate_Distance_Pruning">mate distance pruning</a>.
+	 * <br>When enabled, alpha and beta are bounded at each node by the best and worst possible scores at this distance from the root:
+	 * a win at next half move and a loose at current half move (see {@link Evaluator#getWinScore(int)}).
+	 * Once a mate is found, lines that can't lead to a shorter mate are cut.
+	 * <br>This greatly speeds up the search of positions with forced wins, and does not change the search result.
+	 * @param mateDistancePruning true to enable mate distance pruning, false to disable it
+	 */
+	public void setMateDistancePruning(boolean mateDistancePruning) {
+		this.mateDistancePruning = mateDistancePruning;
+	}
+
+	/** Gets the pool used by the young brothers wait concept.
+	 * @return a pool or null (the default) if the young brothers wait concept is disabled.
+	 */
+	public ForkJoinPool getYoungBrothersWaitPool() {
+		return ybwcPool;
+	}
+
+	/** Gets the minimum remaining depth of the nodes whose moves are searched in parallel by the young brothers wait concept.
+	 * @return a positive int
+	 */
+	public int getYoungBrothersWaitMinDepth() {
+		return ybwcMinDepth;
+	}
+
+	/** Enables or disables the <a href="https://www.chessprogramming.org/Young_Brothers_Wait_Concept">young brothers wait concept</a> (YBWC).
+	 * <br>When enabled, once the first move (the eldest brother) of a node with a remaining depth greater than or equal to <i>minDepth</i> is searched,
+	 * the other moves (the young brothers) are searched in parallel by the threads of a work stealing pool. Each move is searched in a copy of the node's {@link SearchContext}
+	 * and the brothers share their alpha value. When a move causes a beta cutoff, the brothers that are not yet started are not searched.
+	 * <br>As the search of the eldest brother gives a good alpha value, the parallel search remains almost as efficient as the sequential one.
+	 * <br>This requires the game position and the evaluator to be forkable (see {@link com.fathzer.games.util.exec.Forkable}) from any thread, and the transposition table (if any) to be thread safe.
+	 * Search statistics are shared by the copies, they should be thread safe too.
+	 * <br>Each thread of the pool has its own killer moves and countermoves (see {@link #setKillerMoves(boolean)}).
+	 * <br>As synchronizing a context has a cost, <i>minDepth</i> should not be too small.
+	 * @param pool The pool that searches the young brothers, null to disable YBWC.
+	 * @param minDepth The minimum remaining depth of the nodes whose moves are searched in parallel.
+	 * @throws IllegalArgumentException if minDepth &lt; 2 and pool is not null.
+	 */
+	public void setYoungBrothersWait(ForkJoinPool pool, int minDepth) {
+		if (pool!=null && minDepth<2) {
+			throw new IllegalArgumentException();
+		}
+		this.ybwcPool = pool;
+		this.ybwcMinDepth = minDepth;
+	}
+
+	/** Gets the table used by ABDADA.
+	 * @return a table or null (the default) if ABDADA is disabled.
+	 */
+	public AbdadaTable getAbdadaTable() {
+		return abdada;
+	}
+
+	/** Gets the minimum remaining depth of the nodes where ABDADA defers the moves searched by other threads.
+	 * @return a positive int
+	 */
+	public int getAbdadaMinDepth() {
+		return abdadaMinDepth;
+	}
+
+	/** Enables or disables a simplified <a href="https://www.chessprogramming.org/ABDADA">ABDADA</a>.
+	 * <br>When several threads search the same tree (for instance with {@link com.fathzer.games.ai.iterativedeepening.IterativeDeepeningEngine.ParallelMode#LAZY_SMP}),
+	 * they often search the same positions at the same time. When enabled, the threads record in a shared table the positions they are searching.
+	 * At nodes with a remaining depth greater than or equal to <i>minDepth</i>, a move that leads to a position currently searched by another thread is
+	 * deferred to the end of the move loop. When it is finally searched, the other thread has probably stored its result in the transposition table.
+	 * <br>The first move of a node is never deferred.
+	 * <br>This requires the game position to implement {@link HashProvider}, but works with any transposition table.
+	 * Moves deferred at a node are lost if a move causes a beta cutoff, so the search result is not changed.
+	 * @param table The table shared by all the search threads, null to disable ABDADA.
+	 * @param minDepth The minimum remaining depth of the nodes where moves can be deferred.
+	 * @throws IllegalArgumentException if minDepth &lt; 1 and table is not null.
+	 */
+	public void setAbdada(AbdadaTable table, int minDepth) {
+		if (table!=null && minDepth<1) {
+			throw new IllegalArgumentException();
+		}
+		this.abdada = table;
+		this.abdadaMinDepth = minDepth;
+	}
+
 	/** Gets the quiesce evaluator used to evaluate positions (see <a href="https://en.wikipedia.org/wiki/Quiescence_search">quiescence search</a>).
 	 * <br>The default implementation simply returns the current position evaluation without performing any quiescence search.
 	 * @return The quiesce evaluator.
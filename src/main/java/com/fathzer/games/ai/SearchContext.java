@@ -12,9 +12,10 @@ import com.fathzer.games.util.exec.Forkable;
  * @param <B> The type of the evaluator
  */
 public class SearchContext<M, B extends MoveGenerator<M>> implements Forkable<SearchContext<M, B>> {
-	private final B gamePosition;
-	private final Evaluator<M, B> evaluator;
+	private B gamePosition;
+	private Evaluator<M, B> evaluator;
 	private SearchStatistics statistics;
+	private Object attachment;
 	
 	private SearchContext(B gamePosition, Evaluator<M, B> evaluator, SearchStatistics statistics) {
 		this.gamePosition = gamePosition;
@@ -43,6 +44,24 @@ public class SearchContext<M, B extends MoveGenerator<M>> implements Forkable<Se
 		return statistics;
 	}
 
+	/** Gets the object attached to this context.
+	 * @return an object or null if no object is attached.
+	 * @see #setAttachment(Object)
+	 */
+	public Object getAttachment() {
+		return attachment;
+	}
+
+	/** Attaches an object to this context.
+	 * <br>As a context is used by only one thread at a time, search algorithms can use the attachment to store per thread data they want to reuse
+	 * from one call to another (for instance, to prevent allocating objects at each searched node).
+	 * <br>Please note that the attachment is not copied by {@link #fork()}.
+	 * @param attachment The object to attach (null to remove the current attachment)
+	 */
+	public void setAttachment(Object attachment) {
+		this.attachment = attachment;
+	}
+
 	/** Makes a move.
 	 * @param move The move to make
 	 * @param confidence The confidence of the move
@@ -63,6 +82,46 @@ public class SearchContext<M, B extends MoveGenerator<M>> implements Forkable<Se
 		gamePosition.unmakeMove();
 	}
 
+	/** Makes a null move.
+	 * <br>The evaluator is not notified, as the position of the pieces does not change.
+	 * @return true if the null move was made, false if the game position refused it.
+	 * @see MoveGenerator#makeNullMove()
+	 */
+	public boolean makeNullMove() {
+		return gamePosition.makeNullMove();
+	}
+	
+	/** Unmakes the last move, which was a null move. */
+	public void unmakeNullMove() {
+		gamePosition.unmakeNullMove();
+	}
+
+	/** {@inheritDoc}
+	 * <br>The game position and the evaluator are copied using their {@link com.fathzer.games.util.exec.Forkable#copyFrom(Object)} method.
+	 * If one of them does not support the copy, it is replaced by a fork of the source's one. So, this method always returns true.
+	 * <br>The statistics of the source are shared with this and, unlike {@link #fork()}, the attachment is preserved.
+	 */
+	@Override
+	public boolean copyFrom(SearchContext<M, B> source) {
+		copyPositionFrom(source);
+		statistics = source.statistics;
+		return true;
+	}
+
+	/** Copies the game position and the evaluator of another context to this one.
+	 * <br>Unlike {@link #copyFrom(SearchContext)}, this context keeps its own statistics.
+	 * @param source The context to copy
+	 */
+	@SuppressWarnings("unchecked")
+	public void copyPositionFrom(SearchContext<M, B> source) {
+		if (!gamePosition.copyFrom(source.gamePosition)) {
+			gamePosition = (B) source.gamePosition.fork();
+		}
+		if (!evaluator.copyFrom(source.evaluator)) {
+			evaluator = source.evaluator.fork();
+		}
+	}
+
 	@SuppressWarnings("unchecked")
 	@Override
 	public SearchContext<M, B> fork() {
@@ -11,6 +11,7 @@ public class SearchStatistics {
 	private final AtomicLong generatedMoveCount = new AtomicLong();
 	private final AtomicLong movePlayedCount = new AtomicLong();
 	private final AtomicLong moveFromTTPlayedCount = new AtomicLong();
+	private final AtomicLong quiesceNodeCount = new AtomicLong();
 	private long startMs = System.currentTimeMillis();
 	
 	private boolean enabled = true;
@@ -38,6 +39,7 @@ public class SearchStatistics {
 		moveGenerationCount.set(0);
 		generatedMoveCount.set(0);
 		movePlayedCount.set(0);
+		quiesceNodeCount.set(0);
 	}
 
 	/** Gets the number of position evaluations done during a search.
@@ -75,6 +77,13 @@ public class SearchStatistics {
 		return moveFromTTPlayedCount.get();
 	}
 	
+	/** Gets the number of nodes searched by quiescence searches.
+	 * @return a positive long
+	 */
+	public long getQuiesceNodeCount() {
+		return quiesceNodeCount.get();
+	}
+	
 	/** Increments the number of moves played. */
 	public void movePlayed() {
 		movePlayedCount.incrementAndGet();
@@ -85,6 +94,13 @@ public class SearchStatistics {
 		moveFromTTPlayedCount.incrementAndGet();
 	}
 
+	/** Increments the number of nodes searched by quiescence searches. */
+	public void quiesceNodeDone() {
+		if (enabled) {
+			quiesceNodeCount.incrementAndGet();
+		}
+	}
+
 	/** Increments the number of position evaluations done. */
 	public void evaluationDone() {
 		if (enabled) {
@@ -113,7 +129,7 @@ public class SearchStatistics {
 	@Override
 	public String toString() {
 		return enabled ? "SearchStatistics [moveGenerationCount=" + moveGenerationCount + ", generatedMoveCount="
-				+ generatedMoveCount + ", movePlayedCount=" + movePlayedCount + ", evalCount=" + evalCount + "]" :
+				+ generatedMoveCount + ", movePlayedCount=" + movePlayedCount + ", evalCount=" + evalCount + ", quiesceNodeCount=" + quiesceNodeCount + "]" :
 			"SearchStatistics are disabled";
 	}
 }
\ No newline at end of file
@@ -0,0 +1,125 @@
+package com.fathzer.games.ai.evaluation;
+
+import com.fathzer.games.HashProvider;
+
+/** An evaluator that stores the evaluations computed by another evaluator in an {@link EvaluationCache}.
+ * <br>When a position implements {@link HashProvider} and was already evaluated (typically, because it was reached by transposition),
+ * its evaluation is read from the cache instead of being computed again.
+ * Positions that do not implement {@link HashProvider} are always evaluated by the decorated evaluator.
+ * <br>Incremental evaluators are supported: all the methods, except {@link #evaluate(Object)}, are delegated to the decorated evaluator.
+ * <br>The forks of this evaluator share the cache of this evaluator, so the evaluations computed by a search thread benefit to all the threads.
+ * <br>Please note that, as any search algorithm based on {@link com.fathzer.games.ai.SearchContext} evaluates positions through its evaluator,
+ * the default quiesce evaluator of {@link com.fathzer.games.ai.Negamax} uses the cache if the context's evaluator is a {@link CachedEvaluator}.
+ * @param <M> The type of a move
+ * @param <B> The type of the game position
+ */
+public class CachedEvaluator<M, B> implements Evaluator<M, B> {
+	private final Evaluator<M, B> evaluator;
+	private final EvaluationCache cache;
+
+	/** Constructor.
+	 * @param evaluator The decorated evaluator
+	 * @param cache The cache where evaluations are stored
+	 */
+	public CachedEvaluator(Evaluator<M, B> evaluator, EvaluationCache cache) {
+		this.evaluator = evaluator;
+		this.cache = cache;
+	}
+
+	/** Gets the decorated evaluator.
+	 * @return an evaluator
+	 */
+	public Evaluator<M, B> getEvaluator() {
+		return evaluator;
+	}
+
+	/** Gets the cache used by this evaluator.
+	 * @return a cache
+	 */
+	public EvaluationCache getCache() {
+		return cache;
+	}
+
+	@Override
+	public void init(B board) {
+		evaluator.init(board);
+	}
+
+	@Override
+	public void prepareMove(B board, M move) {
+		evaluator.prepareMove(board, move);
+	}
+
+	@Override
+	public void commitMove() {
+		evaluator.commitMove();
+	}
+
+	@Override
+	public void unmakeMove() {
+		evaluator.unmakeMove();
+	}
+
+	@Override
+	public int evaluate(B board) {
+		if (board instanceof HashProvider hp) {
+			final long key = hp.getHashKey();
+			final long cached = cache.get(key);
+			if (cached!=EvaluationCache.NOT_FOUND) {
+				return (int)cached;
+			}
+			final int evaluation = evaluator.evaluate(board);
+			cache.store(key, evaluation);
+			return evaluation;
+		}
+		return evaluator.evaluate(board);
+	}
+
+	@Override
+	public int getWinScore(int nbHalfMoves) {
+		return evaluator.getWinScore(nbHalfMoves);
+	}
+
+	@Override
+	public int getNbHalfMovesToWin(int winScore) {
+		return evaluator.getNbHalfMovesToWin(winScore);
+	}
+
+	@Override
+	public boolean isWinLooseScore(int score) {
+		return evaluator.isWinLooseScore(score);
+	}
+
+	@Override
+	public int getFutilityMargin(B board, int depth) {
+		return evaluator.getFutilityMargin(board, depth);
+	}
+
+	@Override
+	public int getReverseFutilityMargin(B board, int depth) {
+		return evaluator.getReverseFutilityMargin(board, depth);
+	}
+
+	@Override
+	public int getRazoringMargin(B board, int depth) {
+		return evaluator.getRazoringMargin(board, depth);
+	}
+
+	@Override
+	public Evaluation toEvaluation(int score) {
+		return evaluator.toEvaluation(score);
+	}
+
+	/** {@inheritDoc}
+	 * <br>The copy is supported if source is a {@link CachedEvaluator} that uses the same cache and its decorated evaluator supports the copy.
+	 */
+	@Override
+	public boolean copyFrom(Evaluator<M, B> source) {
+		return source instanceof CachedEvaluator<M, B> cached && cached.cache==cache && evaluator.copyFrom(cached.evaluator);
+	}
+
+	@Override
+	public CachedEvaluator<M, B> fork() {
+		return new CachedEvaluator<>(evaluator.fork(), cache);
+	}
+}
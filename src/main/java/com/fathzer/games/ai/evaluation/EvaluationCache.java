@@ -0,0 +1,117 @@
+package com.fathzer.games.ai.evaluation;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.fathzer.games.ai.transposition.SizeUnit;
+
+/** A fixed size cache of position evaluations.
+ * <br>Evaluations are indexed by the position's hash key (see {@link com.fathzer.games.HashProvider}). A new evaluation always replaces the one
+ * stored at the same index.
+ * <br>This cache is lock-free: Each entry is stored in two longs, the first one being the key <i>xored</i> with the second
+ * (see <a href="https://www.chessprogramming.org/Shared_Hash_Table#Lock-less">Lockless hashing</a>).
+ * So, it can be shared by several search threads, an entry written concurrently by two threads is simply considered as absent.
+ * <br>It also records the number of lookups and hits.
+ * @see CachedEvaluator
+ */
+public class EvaluationCache {
+	/** The value returned by {@link #get(long)} when the evaluation is not in the cache. */
+	public static final long NOT_FOUND = Long.MIN_VALUE;
+	private static final int SLOTS = 2; // The number of long per entry
+	private static final long VALID = 1L << 32; // A bit that distinguishes a stored evaluation from an empty slot
+
+	private final AtomicLongArray table;
+	private final int size;
+	private final LongAdder lookupCount = new LongAdder();
+	private final LongAdder hitCount = new LongAdder();
+
+	/** Constructor.
+	 * @param size The cache size
+	 * @param unit The unit used to pass the size
+	 * @throws IllegalArgumentException if size is too small to contain at least one evaluation or if it exceeds 16GB
+	 */
+	public EvaluationCache(int size, SizeUnit unit) {
+		final long entries = ((long)size*unit.getSize()) / Long.BYTES / SLOTS;
+		if (entries==0) {
+			throw new IllegalArgumentException("Cache is too small");
+		}
+		if (entries*SLOTS>Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Cache is too big");
+		}
+		this.size = (int)entries;
+		this.table = new AtomicLongArray(this.size*SLOTS);
+	}
+
+	private int getIndex(long key) {
+		return (int)Math.abs(key % size) * SLOTS;
+	}
+
+	/** Gets the evaluation of a position.
+	 * @param key The position's hash key
+	 * @return The evaluation, or {@link #NOT_FOUND} if the evaluation is not in the cache.
+	 */
+	public long get(long key) {
+		lookupCount.increment();
+		final int index = getIndex(key);
+		final long data = table.getOpaque(index+1);
+		if ((data & VALID)!=0 && (table.getOpaque(index) ^ data)==key) {
+			hitCount.increment();
+			return (int)data;
+		}
+		return NOT_FOUND;
+	}
+
+	/** Stores the evaluation of a position.
+	 * @param key The position's hash key
+	 * @param evaluation The evaluation
+	 */
+	public void store(long key, int evaluation) {
+		final int index = getIndex(key);
+		final long data = VALID | (evaluation & 0xFFFFFFFFL);
+		table.setOpaque(index, key ^ data);
+		table.setOpaque(index+1, data);
+	}
+
+	/** Removes all the evaluations from this cache and resets its statistics. */
+	public void clear() {
+		for (int i = 0; i < table.length(); i++) {
+			table.setOpaque(i, 0);
+		}
+		lookupCount.reset();
+		hitCount.reset();
+	}
+
+	/** Gets the maximum number of evaluations in the cache.
+	 * @return a positive int
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/** Gets the number of lookups since this cache was created or cleared.
+	 * @return a positive long
+	 */
+	public long getLookupCount() {
+		return lookupCount.sum();
+	}
+
+	/** Gets the number of lookups that found an evaluation since this cache was created or cleared.
+	 * @return a positive long
+	 */
+	public long getHitCount() {
+		return hitCount.sum();
+	}
+
+	/** Gets the hit rate of this cache.
+	 * @return The permille of lookups that found an evaluation (0 if no lookup was done).
+	 */
+	public int getHitPermille() {
+		final long lookups = getLookupCount();
+		return lookups==0 ? 0 : (int)(getHitCount()*1000/lookups);
+	}
+
+	@Override
+	public String toString() {
+		return "EvaluationCache [size=" + size + ", lookupCount=" + lookupCount + ", hitCount=" + hitCount + "]";
+	}
+}
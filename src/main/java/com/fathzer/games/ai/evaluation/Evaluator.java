@@ -63,6 +63,40 @@ public interface Evaluator<M, B> extends Forkable<Evaluator<M, B>> {
 		return Math.abs(score) > Short.MAX_VALUE-256;
 	}
 	
+	/** Gets the margin used by <a href="https://www.chessprogramming.org/Futility_Pruning">futility pruning</a>.
+	 * <br>At a node with a small remaining depth, if the static evaluation plus this margin does not exceed alpha, the moves that are not tactical
+	 * (see {@link com.fathzer.games.MoveGenerator#isTactical(Object)}) are considered unable to raise alpha and are not searched.
+	 * <br>The margin should be an estimation of the maximum evaluation gain that quiet moves can produce in <i>depth</i> half moves.
+	 * @param board The position (this allows to disable futility pruning in some positions, typically, in chess, when the king is in check).
+	 * @param depth The remaining search depth
+	 * @return a positive margin. The default implementation returns Integer.MAX_VALUE, which disables futility pruning.
+	 */
+	default int getFutilityMargin(B board, int depth) {
+		return Integer.MAX_VALUE;
+	}
+
+	/** Gets the margin used by <a href="https://www.chessprogramming.org/Reverse_Futility_Pruning">reverse futility pruning</a>.
+	 * <br>At a node with a small remaining depth, if the static evaluation minus this margin is greater than or equal to beta,
+	 * the node is considered as failing high and is not searched.
+	 * @param board The position (this allows to disable reverse futility pruning in some positions, typically, in chess, when the king is in check).
+	 * @param depth The remaining search depth
+	 * @return a positive margin. The default implementation returns Integer.MAX_VALUE, which disables reverse futility pruning.
+	 */
+	default int getReverseFutilityMargin(B board, int depth) {
+		return Integer.MAX_VALUE;
+	}
+
+	/** Gets the margin used by <a href="https://www.chessprogramming.org/Razoring">razoring</a>.
+	 * <br>At a node with a small remaining depth, if the static evaluation plus this margin is less than alpha, a quiescence search is performed.
+	 * If it confirms the score can't reach alpha, the node is not searched.
+	 * @param board The position (this allows to disable razoring in some positions, typically, in chess, when the king is in check).
+	 * @param depth The remaining search depth
+	 * @return a positive margin. The default implementation returns Integer.MAX_VALUE, which disables razoring.
+	 */
+	default int getRazoringMargin(B board, int depth) {
+		return Integer.MAX_VALUE;
+	}
+	
 	/** Converts a score to an evaluation.
 	 * @param score a score
 	 * @return an evaluation
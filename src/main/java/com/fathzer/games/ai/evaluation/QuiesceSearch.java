@@ -0,0 +1,142 @@
+package com.fathzer.games.ai.evaluation;
+
+import java.util.List;
+
+import com.fathzer.games.HashProvider;
+import com.fathzer.games.MoveGenerator;
+import com.fathzer.games.MoveGenerator.MoveConfidence;
+import com.fathzer.games.ai.SearchContext;
+import com.fathzer.games.ai.SearchStatistics;
+import com.fathzer.games.ai.transposition.EntryType;
+import com.fathzer.games.ai.transposition.TranspositionTable;
+import com.fathzer.games.ai.transposition.TranspositionTableEntry;
+
+/** A generic <a href="https://www.chessprogramming.org/Quiescence_Search">quiescence search</a>.
+ * <br>It searches the <i>tactical</i> moves returned by {@link MoveGenerator#getQuiesceMoves()} until the position is quiet, using:<ul>
+ * <li><a href="https://www.chessprogramming.org/Quiescence_Search#Standing_Pat">Stand pat</a>: The static evaluation of the position is a lower bound of its score.</li>
+ * <li>Alpha-beta pruning.</li>
+ * <li><a href="https://www.chessprogramming.org/Delta_Pruning">Delta pruning</a>: The moves that can't raise alpha, even with a safety margin, are not searched.
+ * It requires to override {@link #getMaxGain(MoveGenerator, Object)}, by default, no move is pruned.</li>
+ * <li>Transposition table probing (if a table is set): Entries that are valid for the current alpha beta window end the search. Entries are never written by this class.</li>
+ * </ul>
+ * <br>Each searched node is counted in the {@link SearchStatistics} of the search context (see {@link SearchStatistics#getQuiesceNodeCount()}).
+ * <br>This class allocates no object during the search (except the move lists allocated by the move generator) and can be used by many threads concurrently.
+ * @param <M> The type of moves
+ * @param <B> The type of the {@link MoveGenerator} to use
+ */
+public class QuiesceSearch<M, B extends MoveGenerator<M>> implements QuiesceEvaluator<M, B> {
+	/** A per thread holder of the entry reused when probing the transposition table. */
+	private static class EntryHolder<M> {
+		private TranspositionTableEntry<M> entry;
+	}
+
+	private final ThreadLocal<EntryHolder<M>> entries = ThreadLocal.withInitial(EntryHolder::new);
+	private TranspositionTable<M, B> transpositionTable;
+	private int deltaMargin;
+	
+	/** Constructor.
+	 * <br>The created instance uses no transposition table and has a delta margin of 0.
+	 */
+	public QuiesceSearch() {
+		this(null);
+	}
+
+	/** Constructor.
+	 * <br>The created instance has a delta margin of 0.
+	 * @param transpositionTable The transposition table to probe (null to use no transposition table).
+	 */
+	public QuiesceSearch(TranspositionTable<M, B> transpositionTable) {
+		this.transpositionTable = transpositionTable;
+	}
+
+	@Override
+	public int evaluate(SearchContext<M, B> context, int depth, int alpha, int beta) {
+		final SearchStatistics statistics = context.getStatistics();
+		statistics.quiesceNodeDone();
+		final B position = context.getGamePosition();
+		final Evaluator<M, B> evaluator = context.getEvaluator();
+		if (transpositionTable!=null && position instanceof HashProvider hp) {
+			final EntryHolder<M> holder = entries.get();
+			holder.entry = transpositionTable.get(hp.getHashKey(), holder.entry);
+			final TranspositionTableEntry<M> entry = holder.entry;
+			// Win/loose scores are ignored, because their value depends on the depth at which they were stored
+			if (entry!=null && entry.isValid() && !evaluator.isWinLooseScore(entry.getValue())) {
+				final int value = entry.getValue();
+				final EntryType type = entry.getEntryType();
+				if (type==EntryType.EXACT || (type==EntryType.LOWER_BOUND && value>=beta) || (type==EntryType.UPPER_BOUND && value<=alpha)) {
+					return Math.max(alpha, Math.min(beta, value));
+				}
+			}
+		}
+		
+		statistics.evaluationDone();
+		final int standPat = evaluator.evaluate(position);
+		if (standPat>=beta) {
+			return beta;
+		}
+		if (alpha < standPat) {
+			alpha = standPat;
+		}
+		final List<M> moves = position.getQuiesceMoves();
+		statistics.movesGenerated(moves.size());
+		for (M move : moves) {
+			if ((long)standPat + getMaxGain(position, move) + deltaMargin <= alpha) {
+				// Delta pruning, even the best possible outcome of the move does not raise alpha
+				continue;
+			}
+			if (context.makeMove(move, MoveConfidence.PSEUDO_LEGAL)) {
+				statistics.movePlayed();
+				final int score = -evaluate(context, depth+1, -beta, -alpha);
+				context.unmakeMove();
+				if (score >= beta) {
+					return beta;
+				}
+				if (score > alpha) {
+					alpha = score;
+				}
+			}
+		}
+		return alpha;
+	}
+	
+	/** Gets the maximum evaluation gain a move can produce.
+	 * <br>It is used by delta pruning, typically, in chess, it is the value of the captured piece, plus the value of the promotion.
+	 * <br>This method is called before the move is played.
+	 * @param position The current position
+	 * @param move The move
+	 * @return an evaluation gain. The default implementation returns Integer.MAX_VALUE, which disables delta pruning.
+	 */
+	protected int getMaxGain(B position, M move) {
+		return Integer.MAX_VALUE;
+	}
+
+	/** Gets the transposition table probed by this search.
+	 * @return a transposition table or null if this search uses no transposition table.
+	 */
+	public TranspositionTable<M, B> getTranspositionTable() {
+		return transpositionTable;
+	}
+
+	/** Sets the transposition table probed by this search.
+	 * @param transpositionTable a transposition table or null to use no transposition table.
+	 */
+	public void setTranspositionTable(TranspositionTable<M, B> transpositionTable) {
+		this.transpositionTable = transpositionTable;
+	}
+
+	/** Gets the safety margin of delta pruning.
+	 * @return an int
+	 */
+	public int getDeltaMargin() {
+		return deltaMargin;
+	}
+
+	/** Sets the safety margin of delta pruning.
+	 * <br>A move is pruned if the static evaluation, plus the move's maximum gain (see {@link #getMaxGain(MoveGenerator, Object)}), plus this margin, does not exceed alpha.
+	 * The margin allows to take into account the positional gains of the move. Typically, in chess, something like 200 centipawns.
+	 * @param deltaMargin The new margin
+	 */
+	public void setDeltaMargin(int deltaMargin) {
+		this.deltaMargin = deltaMargin;
+	}
+}
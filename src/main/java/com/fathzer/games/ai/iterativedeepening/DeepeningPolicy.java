@@ -20,6 +20,7 @@ public class DeepeningPolicy extends DepthFirstSearchParameters {
 	private long maxTime;
 	private long start;
 	private boolean deepenOnForced;
+	private int aspirationWindow;
 	
 	/** Constructor.
 	 * <br>By default there's no time limit to deepening and forced moves are not evaluated.
@@ -83,6 +84,37 @@ public class DeepeningPolicy extends DepthFirstSearchParameters {
 		this.deepenOnForced = deepenOnForced;
 	}
 
+	/** Gets the initial half width of the <a href="https://www.chessprogramming.org/Aspiration_Windows">aspiration windows</a>.
+	 * <br>When aspiration windows are enabled, each iteration of the search, except the first one, starts with a narrow window around the scores
+	 * of the previous iteration. It produces a lot more cuts in the search tree, but if a score falls outside the window, the search has to be done
+	 * again with a wider window (see {@link #getNextAspirationWindow(int)}).
+	 * @return a positive int, 0 (the default) if aspiration windows are disabled.
+	 */
+	public int getAspirationWindow() {
+		return aspirationWindow;
+	}
+
+	/** Sets the initial half width of the aspiration windows.
+	 * @param aspirationWindow The half width of the window, 0 to disable aspiration windows
+	 * @throws IllegalArgumentException if aspirationWindow is &lt; 0
+	 * @see #getAspirationWindow()
+	 */
+	public void setAspirationWindow(int aspirationWindow) {
+		if (aspirationWindow<0) {
+			throw new IllegalArgumentException("Aspiration window should be positive");
+		}
+		this.aspirationWindow = aspirationWindow;
+	}
+
+	/** Gets the half width of the aspiration window to use after a search failed outside a window.
+	 * <br>The window is widened only on the side where the search failed.
+	 * @param window The half width of the window where the search failed
+	 * @return The next half width, Integer.MAX_VALUE to remove the bound. The default implementation doubles the half width.
+	 */
+	public int getNextAspirationWindow(int window) {
+		return window>Integer.MAX_VALUE/2 ? Integer.MAX_VALUE : window*2;
+	}
+
 	/** Gets the start depth.
 	 * @return the start depth, default is min(2,maxDepth).
 	 */
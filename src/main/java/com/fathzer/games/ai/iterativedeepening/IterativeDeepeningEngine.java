@@ -1,11 +1,17 @@
 package com.fathzer.games.ai.iterativedeepening;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Supplier;
 
 import com.fathzer.games.MoveGenerator;
+import com.fathzer.games.ai.DepthFirstSearchParameters;
 import com.fathzer.games.ai.Negamax;
 import com.fathzer.games.ai.SearchContext;
 import com.fathzer.games.ai.SearchResult;
@@ -15,13 +21,35 @@ import com.fathzer.games.ai.evaluation.Evaluator;
 import com.fathzer.games.ai.transposition.TTAi;
 import com.fathzer.games.ai.transposition.TranspositionTable;
 import com.fathzer.games.movelibrary.MoveLibrary;
+import com.fathzer.games.util.UncheckedException;
+import com.fathzer.games.util.exec.CustomThreadFactory;
+import com.fathzer.games.util.exec.CustomThreadFactory.BasicThreadNameSupplier;
 import com.fathzer.games.util.exec.ExecutionContext;
+import com.fathzer.games.util.exec.WorkerPool;
 
 /** An engine that iteratively deepens the search. 
  * @param <M> The class that represents a move
  * @param <B> The class that represents the move generator 
  */
-public class IterativeDeepeningEngine<M, B extends MoveGenerator<M>> {
+public class IterativeDeepeningEngine<M, B extends MoveGenerator<M>> implements AutoCloseable {
+	/** The way the threads of the engine are used when parallelism is greater than 1.
+	 * @see IterativeDeepeningEngine#setParallelMode(ParallelMode)
+	 */
+	public enum ParallelMode {
+		/** The root moves are split between the threads (see {@link ExecutionContext#execute(java.util.Collection)}). This is the default mode. */
+		ROOT_SPLITTING,
+		/** <a href="https://www.chessprogramming.org/Lazy_SMP">Lazy SMP</a>.
+		 * <br>The main search is performed by a single thread, while helper threads search the whole tree at staggered depths.
+		 * The helper threads only populate the transposition table, the result of the main search is the final result.
+		 * <br>This mode requires a thread safe transposition table, and is useless without a transposition table.
+		 * <br>The threads can avoid searching the same positions at the same time by sharing an {@link com.fathzer.games.ai.AbdadaTable}
+		 * (see {@link com.fathzer.games.ai.Negamax#setAbdada(com.fathzer.games.ai.AbdadaTable, int)} and {@link IterativeDeepeningEngine#buildAI(ExecutionContext)}).
+		 * <br>The helpers and their search contexts are built at the first search and synchronized with the searched position by the following ones
+		 * (until parallelism or evaluator supplier is changed or {@link IterativeDeepeningEngine#close()} is called).
+		 */
+		LAZY_SMP
+	}
+	
 	/** A class that logs events during search at a specific level.
 	 * <br>By default, a logger does nothing.
 	 * @param <M> The class that represents a move
@@ -96,9 +124,16 @@ public class IterativeDeepeningEngine<M, B extends MoveGenerator<M>> {
 	private DeepeningPolicy deepeningPolicy;
 	private TranspositionTable<M, B> transpositionTable;
 	private int parallelism;
+	private ParallelMode parallelMode;
 	private EngineEventLogger<M, B> logger;
 	private IterativeDeepeningSearch<M> rs;
 	private AtomicBoolean running;
+	private WorkerPool<SearchContext<M, B>> workers;
+	private ExecutorService helpersPool;
+	private int helpersCount;
+	private List<Helper<M, B>> helpers;
+	private Supplier<Evaluator<M, B>> helpersEvaluatorSupplier;
+	private volatile boolean closed;
 	
 	/** Constructor
 	 * <br>By default, the parallelism of the search is 1, the event logger logs nothing and the engine select randomly a move in the best move list.
@@ -110,6 +145,7 @@ public class IterativeDeepeningEngine<M, B extends MoveGenerator<M>> {
 	 */
 	public IterativeDeepeningEngine(DeepeningPolicy deepeningPolicy, TranspositionTable<M, B> tt, Supplier<Evaluator<M, B>> evaluatorSupplier) {
 		this.parallelism = 1;
+		this.parallelMode = ParallelMode.ROOT_SPLITTING;
 		this.transpositionTable = tt;
 		this.evaluatorSupplier = evaluatorSupplier;
 		this.running = new AtomicBoolean();
@@ -134,6 +170,7 @@ public class IterativeDeepeningEngine<M, B extends MoveGenerator<M>> {
 	}
 
 	/** Sets how many threads are used to perform the searches.
+	 * <br>The threads are created at the first search that requires them and are reused by the following searches (until parallelism is changed or {@link #close()} is called).
 	 * <br>Calling this method while performing a search may have unpredictable results
 	 * @param parallelism The number of threads used to perform the search (default is 1)
 	 */
@@ -141,6 +178,25 @@ public class IterativeDeepeningEngine<M, B extends MoveGenerator<M>> {
 		this.parallelism = parallelism;
 	}
 	
+	/** Gets the way threads are used when parallelism is greater than 1.
+	 * @return the parallel mode (default is {@link ParallelMode#ROOT_SPLITTING})
+	 */
+	public ParallelMode getParallelMode() {
+		return parallelMode;
+	}
+
+	/** Sets the way threads are used when parallelism is greater than 1.
+	 * <br>Calling this method while performing a search may have unpredictable results
+	 * @param parallelMode The new parallel mode
+	 * @throws IllegalArgumentException if parallelMode is null
+	 */
+	public void setParallelMode(ParallelMode parallelMode) {
+		if (parallelMode==null) {
+			throw new IllegalArgumentException();
+		}
+		this.parallelMode = parallelMode;
+	}
+
 	/** Sets a move library (typically an openings library) of this engine.
 	 * @param library The opening library or null, the default value, to play without such library.
 	 * <br>An openings library is a function that should return null if the library does not known what to play here.
@@ -252,6 +308,9 @@ public class IterativeDeepeningEngine<M, B extends MoveGenerator<M>> {
 	 * @throws IllegalStateException If a search is already running
 	 */
 	protected IterativeDeepeningSearch<M> doSearch(B board, List<M> searchedMoves) {
+		if (closed) {
+			throw new IllegalStateException("Engine is closed");
+		}
 		if (!running.compareAndSet(false, true)) {
 			throw new IllegalStateException();
 		}
@@ -266,7 +325,12 @@ public class IterativeDeepeningEngine<M, B extends MoveGenerator<M>> {
 				rs = new IterativeDeepeningSearch<>(internal, deepeningPolicy);
 				rs.setEventLogger(logger);
 				rs.setSearchedMoves(searchedMoves);
-				logger.logSearchEnd(board, rs.getSearchHistory());
+				final List<TTAi<M, B>> helperAIs = parallelMode==ParallelMode.LAZY_SMP ? getHelpers(context.getContext()) : Collections.emptyList();
+				if (helperAIs.isEmpty()) {
+					logger.logSearchEnd(board, rs.getSearchHistory());
+				} else {
+					searchWithHelpers(board, searchedMoves, helperAIs);
+				}
 				return rs;
 			}
 		} finally {
@@ -274,21 +338,157 @@ public class IterativeDeepeningEngine<M, B extends MoveGenerator<M>> {
 		}
 	}
 	
+	/** A Lazy SMP helper: an AI and the search context it uses. */
+	private record Helper<M, B extends MoveGenerator<M>>(SearchContext<M, B> context, TTAi<M, B> ai) {}
+	
+	/** Gets the helpers' AIs synchronized with the position of a search context (see {@link ParallelMode#LAZY_SMP}).
+	 * <br>The helpers are built once and re-synchronized with the searched position by the following searches.
+	 * A helper whose AI can't be reused after an interruption is rebuilt.
+	 * @param source The search context of the main search
+	 * @return The AIs of the helpers
+	 */
+	private synchronized List<TTAi<M, B>> getHelpers(SearchContext<M, B> source) {
+		final int count = getParallelism()-1;
+		if (helpers==null || helpers.size()!=count || helpersEvaluatorSupplier!=evaluatorSupplier) {
+			helpers = new ArrayList<>(count);
+			helpersEvaluatorSupplier = evaluatorSupplier;
+			for (int i = 0; i < count; i++) {
+				helpers.add(buildHelper(SearchContext.get(source.getGamePosition(), evaluatorSupplier)));
+			}
+		} else {
+			for (int i = 0; i < count; i++) {
+				final Helper<M, B> helper = helpers.get(i);
+				helper.context().copyPositionFrom(source);
+				if (!helper.ai().clearInterrupted()) {
+					helpers.set(i, buildHelper(helper.context()));
+				}
+			}
+		}
+		final List<TTAi<M, B>> result = new ArrayList<>(count);
+		for (Helper<M, B> helper : helpers) {
+			helper.ai().setTranspositonTable(transpositionTable);
+			result.add(helper.ai());
+		}
+		return result;
+	}
+	
+	private Helper<M, B> buildHelper(SearchContext<M, B> context) {
+		return new Helper<>(context, buildAI(ExecutionContext.get(1, context)));
+	}
+	
+	/** Cancels the helpers' tasks that may still be running.
+	 * <br>As these tasks may still be using their search contexts, the helpers are discarded and will be rebuilt by next search.
+	 * @param futures The futures of the helpers' tasks
+	 */
+	private synchronized void stopHelpers(List<Future<?>> futures) {
+		futures.forEach(f -> f.cancel(true));
+		helpers = null;
+	}
+	
+	/** Performs the main search while helper threads search the same position (see {@link ParallelMode#LAZY_SMP}).
+	 */
+	private void searchWithHelpers(B board, List<M> searchedMoves, List<TTAi<M, B>> helpers) {
+		final ExecutorService exec = getHelpersPool(helpers.size());
+		final List<Future<?>> futures = new ArrayList<>(helpers.size());
+		try {
+			for (int i = 0; i < helpers.size(); i++) {
+				// Half of the helpers search one ply deeper than the others
+				final int depthOffset = i%2;
+				final TTAi<M, B> helper = helpers.get(i);
+				futures.add(exec.submit(() -> help(helper, searchedMoves, depthOffset)));
+			}
+			try {
+				logger.logSearchEnd(board, rs.getSearchHistory());
+			} finally {
+				helpers.forEach(TTAi::interrupt);
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} catch (ExecutionException e) {
+			stopHelpers(futures);
+			throw new UncheckedException(e.getCause());
+		} catch (InterruptedException e) {
+			stopHelpers(futures);
+			Thread.currentThread().interrupt();
+		} catch (RuntimeException e) {
+			// The main search failed
+			stopHelpers(futures);
+			throw e;
+		}
+	}
+	
+	private synchronized ExecutorService getHelpersPool(int size) {
+		if (helpersPool==null || helpersCount!=size) {
+			if (helpersPool!=null) {
+				helpersPool.shutdown();
+			}
+			helpersPool = Executors.newFixedThreadPool(size, new CustomThreadFactory(new BasicThreadNameSupplier("Lazy SMP helper"), true));
+			helpersCount = size;
+		}
+		return helpersPool;
+	}
+	
+	private synchronized WorkerPool<SearchContext<M, B>> getWorkers(int parallelism) {
+		if (workers==null || workers.getParallelism()!=parallelism) {
+			if (workers!=null) {
+				workers.close();
+			}
+			workers = new WorkerPool<>(parallelism);
+		}
+		return workers;
+	}
+
+	private void help(TTAi<M, B> helper, List<M> searchedMoves, int depthOffset) {
+		for (int depth = deepeningPolicy.getStartDepth()+depthOffset; depth<=deepeningPolicy.getDepth() && !helper.isInterrupted(); depth++) {
+			final DepthFirstSearchParameters params = new DepthFirstSearchParameters(depth, deepeningPolicy.getSize(), deepeningPolicy.getAccuracy());
+			if (searchedMoves==null) {
+				helper.getBestMoves(params);
+			} else {
+				helper.getBestMoves(searchedMoves, params);
+			}
+		}
+	}
+	
 	/** Builds the execution context used for a search.
-	 * <br>The default implementation builds a new execution context with the given board and evaluator supplier using {@link #getParallelism()} threads. 
+	 * <br>The default implementation builds a new execution context with the given board and evaluator supplier using {@link #getParallelism()} threads
+	 * (or a single thread in {@link ParallelMode#LAZY_SMP} mode, where the other threads are helpers).
+	 * <br>When more than one thread is used, the returned context uses the threads of a {@link WorkerPool} that is kept from one search to another. 
 	 * @param board The board to search
 	 * @return The execution context
 	 */
 	protected ExecutionContext<SearchContext<M,B>> buildExecutionContext(B board) {
 		final SearchContext<M, B> context = SearchContext.get(board, evaluatorSupplier);
-		return ExecutionContext.get(getParallelism(), context);
+		final int threads = parallelMode==ParallelMode.LAZY_SMP ? 1 : getParallelism();
+		return threads==1 ? ExecutionContext.get(1, context) : getWorkers(threads).getExecutionContext(context);
 	}
 	
 	/** Builds the AI used to search best moves at different depth. 
+	 * <br>In {@link ParallelMode#LAZY_SMP} mode, this method is also used to build the AI of each helper thread.
+	 * These AIs are built once and reused by the following searches, so they should support {@link TTAi#clearInterrupted()}
+	 * (otherwise they are rebuilt after each search).
 	 * @param context An execution context that can be used by the AI.
 	 * @return An AI that supports transposition tables. THe default implementation returns a Negamax instance.
 	 */
 	protected TTAi<M, B> buildAI(ExecutionContext<SearchContext<M,B>> context) {
 		return new Negamax<>(context);
 	}
+
+	/** Stops the threads used by this engine to perform the searches.
+	 * <br>Once closed, the engine can no more perform searches.
+	 * <br>This method should not be called while a search is running.
+	 */
+	@Override
+	public synchronized void close() {
+		closed = true;
+		if (workers!=null) {
+			workers.close();
+			workers = null;
+		}
+		if (helpersPool!=null) {
+			helpersPool.shutdown();
+			helpersPool = null;
+		}
+		helpers = null;
+	}
 }
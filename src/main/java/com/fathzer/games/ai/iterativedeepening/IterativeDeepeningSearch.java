@@ -14,6 +14,7 @@ import com.fathzer.games.util.SortedUtils;
 import com.fathzer.games.ai.DepthFirstSearchParameters;
 import com.fathzer.games.ai.SearchResult;
 import com.fathzer.games.ai.evaluation.EvaluatedMove;
+import com.fathzer.games.ai.evaluation.Evaluation.Type;
 
 /**
  * An iterative deepening search for the best moves.
@@ -105,7 +106,7 @@ public class IterativeDeepeningSearch<M> {
 					evaluatedMoves.stream().filter(em-> !moves.contains(em.getMove())).forEach(ended::add);
 				}
 				currentParams.setDepth(deepeningPolicy.getNextDepth(currentParams.getDepth()));
-				final SearchResult<M> deeper = ai.getBestMoves(moves, currentParams);
+				final SearchResult<M> deeper = search(moves, currentParams, evaluatedMoves);
 				evaluatedMoves = deeper.getList();
 				depth = currentParams.getDepth();
 				logger.logSearchAtDepth(depth, ai.getStatistics(), deeper);
@@ -120,6 +121,47 @@ public class IterativeDeepeningSearch<M> {
 		return searchHistory;
 	}
 	
+	/** Searches moves, using an aspiration window if the deepening policy requires it.
+	 * @param moves The moves to search
+	 * @param params The search parameters
+	 * @param previous The results of the previous iteration
+	 * @return The search result
+	 */
+	private SearchResult<M> search(List<M> moves, DepthFirstSearchParameters params, List<EvaluatedMove<M>> previous) {
+		final int window = deepeningPolicy.getAspirationWindow();
+		if (window==0 || previous.isEmpty() || previous.get(0).getEvaluation().getType()!=Type.EVAL) {
+			// No aspiration window or previous best move is a win/loose (its score should not be used as window center)
+			return ai.getBestMoves(moves, params);
+		}
+		final int best = previous.get(0).getScore();
+		final int lowerBound = params.getLowerBound(previous);
+		int lowWindow = lowerBound==Integer.MIN_VALUE ? Integer.MAX_VALUE : window;
+		int highWindow = window;
+		try {
+			while (true) {
+				final int low = lowWindow==Integer.MAX_VALUE ? Integer.MIN_VALUE : (int)Math.max(Integer.MIN_VALUE, (long)lowerBound-lowWindow);
+				final int high = highWindow==Integer.MAX_VALUE ? Integer.MAX_VALUE : (int)Math.min(Integer.MAX_VALUE, (long)best+highWindow);
+				params.setWindow(low, high);
+				final SearchResult<M> result = ai.getBestMoves(moves, params);
+				final List<EvaluatedMove<M>> list = result.getList();
+				if (ai.isInterrupted()) {
+					return result;
+				}
+				if (high!=Integer.MAX_VALUE && !list.isEmpty() && list.get(0).getScore()>=high) {
+					// Fail high, the best move is better than expected
+					highWindow = deepeningPolicy.getNextAspirationWindow(highWindow);
+				} else if (low!=Integer.MIN_VALUE && params.getLowerBound(list)<low) {
+					// Fail low, some moves that should have an exact score are under the window
+					lowWindow = deepeningPolicy.getNextAspirationWindow(lowWindow);
+				} else {
+					return result;
+				}
+			}
+		} finally {
+			params.setWindow(Integer.MIN_VALUE, Integer.MAX_VALUE);
+		}
+	}
+	
 	private static <M> List<EvaluatedMove<M>> complete(SearchResult<M> result, List<EvaluatedMove<M>> ended) {
 		if (ended.isEmpty()) {
 			return result.getList();
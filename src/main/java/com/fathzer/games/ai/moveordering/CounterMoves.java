@@ -0,0 +1,70 @@
+package com.fathzer.games.ai.moveordering;
+
+/** A <a href="https://www.chessprogramming.org/Countermove_Heuristic">countermoves</a> table.
+ * <br>It remembers, for a move, the last reply to this move that caused a beta cutoff.
+ * <br>The table has a fixed size and is indexed by the hash code of the previous move, a new countermove replaces the one stored at the same index.
+ * So, moves should have a hashCode method that distributes well the moves (and, of course, an equals method consistent with it).
+ * <br>This class is not thread safe, each search thread should have its own instance.
+ * @param <M> The type of moves
+ */
+public class CounterMoves<M> {
+	/** The default number of entries of the table. */
+	public static final int DEFAULT_SIZE = 4096;
+	
+	private final Object[] previous;
+	private final Object[] counters;
+	private final int mask;
+	
+	/** Constructor.
+	 * <br>Creates a table with {@link #DEFAULT_SIZE} entries.
+	 */
+	public CounterMoves() {
+		this(DEFAULT_SIZE);
+	}
+	
+	/** Constructor.
+	 * @param size The number of entries of the table.
+	 * @throws IllegalArgumentException if size is not a strictly positive power of 2
+	 */
+	public CounterMoves(int size) {
+		if (size<=0 || Integer.bitCount(size)!=1) {
+			throw new IllegalArgumentException("Size should be a positive power of 2");
+		}
+		this.previous = new Object[size];
+		this.counters = new Object[size];
+		this.mask = size-1;
+	}
+	
+	private int getIndex(M move) {
+		final int hash = move.hashCode();
+		return (hash ^ (hash >>> 16)) & mask;
+	}
+	
+	/** Sets the countermove of a move.
+	 * @param previousMove The move that was played just before the countermove
+	 * @param counter The move that caused a cutoff in reply to <i>previousMove</i>
+	 */
+	public void set(M previousMove, M counter) {
+		final int index = getIndex(previousMove);
+		previous[index] = previousMove;
+		counters[index] = counter;
+	}
+	
+	/** Gets the countermove of a move.
+	 * @param previousMove The move that was played just before
+	 * @return The last move that caused a cutoff in reply to <i>previousMove</i>, or null if there is no such move in the table
+	 */
+	@SuppressWarnings("unchecked")
+	public M get(M previousMove) {
+		final int index = getIndex(previousMove);
+		return previousMove.equals(previous[index]) ? (M)counters[index] : null;
+	}
+	
+	/** Removes all the countermoves. */
+	public void clear() {
+		for (int i = 0; i < previous.length; i++) {
+			previous[i] = null;
+			counters[i] = null;
+		}
+	}
+}
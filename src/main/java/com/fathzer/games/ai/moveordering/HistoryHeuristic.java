@@ -0,0 +1,129 @@
+package com.fathzer.games.ai.moveordering;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.function.ToIntFunction;
+
+/** A <a href="https://www.chessprogramming.org/History_Heuristic">history heuristic</a>.
+ * <br>It scores the moves that caused beta cutoffs, the deeper the remaining search depth of the cutoff, the greater the bonus (it equals to the square of the depth).
+ * Moves are then sorted by decreasing score.
+ * <br>Scores are stored in <a href="https://www.chessprogramming.org/Butterfly_Boards">butterfly tables</a> indexed by an integer representation of the moves
+ * (for instance the one used by {@link com.fathzer.games.ai.transposition.OneLongEntryTranspositionTable} to store moves).
+ * As this representation can have any value, the table has a fixed size and different moves can share the same score.
+ * <br>Each thread that uses this class has its own table, so an instance can be shared by all the threads of a search and across all the iterations
+ * of an iterative deepening search. Between two iterations (see {@link #newIteration()}), the scores are halved, so that the recent cutoffs have more weight than the old ones.
+ * @param <M> The type of moves
+ */
+public class HistoryHeuristic<M> {
+	/** The default number of scores of a table. */
+	public static final int DEFAULT_SIZE = 1<<16;
+	private static final int MAX_SCORE = 1<<24;
+	
+	private final class Table {
+		private final int[] scores = new int[mask+1];
+		private int iteration = HistoryHeuristic.this.iteration;
+		private int clearCount = HistoryHeuristic.this.clearCount;
+		private final Comparator<M> comparator = (m1, m2) -> Integer.compare(scores[getIndex(m2)], scores[getIndex(m1)]);
+		
+		private Table sync() {
+			if (clearCount!=HistoryHeuristic.this.clearCount) {
+				Arrays.fill(scores, 0);
+				clearCount = HistoryHeuristic.this.clearCount;
+				iteration = HistoryHeuristic.this.iteration;
+			} else if (iteration!=HistoryHeuristic.this.iteration) {
+				age(Math.min(HistoryHeuristic.this.iteration-iteration, Integer.SIZE-1));
+				iteration = HistoryHeuristic.this.iteration;
+			}
+			return this;
+		}
+		
+		private void age(int shift) {
+			for (int i = 0; i < scores.length; i++) {
+				scores[i] = scores[i] >> shift;
+			}
+		}
+	}
+	
+	private final ToIntFunction<M> encoder;
+	private final int mask;
+	private final int shift;
+	private final ThreadLocal<Table> tables = ThreadLocal.withInitial(Table::new);
+	private volatile int iteration;
+	private volatile int clearCount;
+	
+	/** Constructor.
+	 * <br>Creates a heuristic whose tables have {@link #DEFAULT_SIZE} scores.
+	 * @param encoder A function that converts a move to an int.
+	 */
+	public HistoryHeuristic(ToIntFunction<M> encoder) {
+		this(encoder, DEFAULT_SIZE);
+	}
+	
+	/** Constructor.
+	 * @param encoder A function that converts a move to an int.
+	 * @param size The number of scores of each table.
+	 * @throws IllegalArgumentException if size is not a strictly positive power of 2
+	 */
+	public HistoryHeuristic(ToIntFunction<M> encoder, int size) {
+		if (size<=0 || Integer.bitCount(size)!=1) {
+			throw new IllegalArgumentException("Size should be a positive power of 2");
+		}
+		this.encoder = encoder;
+		this.mask = size-1;
+		this.shift = Integer.numberOfLeadingZeros(mask);
+	}
+	
+	private int getIndex(M move) {
+		// Multiplicative hashing to spread the encoded moves over the table
+		return (encoder.applyAsInt(move) * 0x9E3779B9 >>> shift) & mask;
+	}
+	
+	private Table getTable() {
+		return tables.get().sync();
+	}
+	
+	/** Records that a move caused a beta cutoff in the current thread.
+	 * @param move The move
+	 * @param depth The remaining search depth of the node where the cutoff occurred
+	 */
+	public void cutoffDone(M move, int depth) {
+		final Table table = getTable();
+		final int index = getIndex(move);
+		table.scores[index] += depth*depth;
+		if (table.scores[index]>MAX_SCORE) {
+			// Prevent overflows
+			table.age(1);
+		}
+	}
+	
+	/** Gets the score of a move in the current thread.
+	 * @param move The move
+	 * @return a positive or null int
+	 */
+	public int getScore(M move) {
+		return getTable().scores[getIndex(move)];
+	}
+	
+	/** Gets a comparator that sorts moves by decreasing score in the current thread.
+	 * <br>The returned comparator should only be used by the current thread.
+	 * @return a comparator
+	 */
+	public Comparator<M> getComparator() {
+		return getTable().comparator;
+	}
+	
+	/** Signals a new search iteration.
+	 * <br>The scores of all the tables are halved (they are halved lazily, the next time a thread uses its table).
+	 * <br>This method should not be called concurrently with itself or with {@link #clear()}.
+	 */
+	public void newIteration() {
+		iteration++;
+	}
+	
+	/** Resets the scores of all the tables (they are reset lazily, the next time a thread uses its table).
+	 * <br>This method should not be called concurrently with itself or with {@link #newIteration()}.
+	 */
+	public void clear() {
+		clearCount++;
+	}
+}
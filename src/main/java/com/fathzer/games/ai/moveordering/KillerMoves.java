@@ -0,0 +1,67 @@
+package com.fathzer.games.ai.moveordering;
+
+import java.util.Arrays;
+
+/** A <a href="https://www.chessprogramming.org/Killer_Heuristic">killer moves</a> table.
+ * <br>It remembers, for each ply from the root of the search, the last two distinct moves that caused a beta cutoff.
+ * As sibling positions often share the same refutation, these moves are good candidates to be tried early.
+ * <br>This class is not thread safe, each search thread should have its own instance.
+ * @param <M> The type of moves
+ */
+public class KillerMoves<M> {
+	/** The number of killer moves remembered per ply. */
+	public static final int SLOTS = 2;
+	
+	private Object[] moves;
+	
+	/** Constructor. */
+	public KillerMoves() {
+		this.moves = new Object[16*SLOTS];
+	}
+	
+	/** Adds a killer move.
+	 * <br>If the move is not already the first killer of its ply, it becomes the first killer and the previous first killer becomes the second one.
+	 * @param ply The ply (number of half moves from the root of the search) of the node where the move caused a cutoff.
+	 * @param move The move
+	 */
+	public void add(int ply, M move) {
+		final int index = ply*SLOTS;
+		if (index>=moves.length) {
+			moves = Arrays.copyOf(moves, Math.max(moves.length*2, index+SLOTS));
+		}
+		if (!move.equals(moves[index])) {
+			moves[index+1] = moves[index];
+			moves[index] = move;
+		}
+	}
+	
+	/** Gets a killer move.
+	 * @param ply The ply (number of half moves from the root of the search)
+	 * @param slot The index of the killer (0 for the most recent one, up to {@link #SLOTS}-1)
+	 * @return The move or null if there's no such killer move
+	 */
+	@SuppressWarnings("unchecked")
+	public M get(int ply, int slot) {
+		final int index = ply*SLOTS + slot;
+		return index<moves.length ? (M)moves[index] : null;
+	}
+	
+	/** Checks whether a move is a killer move at a ply.
+	 * @param ply The ply (number of half moves from the root of the search)
+	 * @param move The move
+	 * @return true if the move is one of the killer moves of the ply
+	 */
+	public boolean isKiller(int ply, M move) {
+		for (int i = 0; i < SLOTS; i++) {
+			if (move.equals(get(ply, i))) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/** Removes all the killer moves. */
+	public void clear() {
+		Arrays.fill(moves, null);
+	}
+}
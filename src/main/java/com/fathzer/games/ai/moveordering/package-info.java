@@ -0,0 +1,4 @@
+/** Tables that remember the moves that caused cutoffs during a search, in order to try them early in other nodes.
+ * @see <a href="https://www.chessprogramming.org/Move_Ordering">Move Ordering on Chess Programming Wiki</a>
+*/
+package com.fathzer.games.ai.moveordering;
@@ -5,9 +5,9 @@ package com.fathzer.games.ai.transposition;
  * @param <M> The type of the move
  */
 public class AlphaBetaState<M> {
-	private final int depth;
-	private final int alpha;
-	private final int beta;
+	private int depth;
+	private int alpha;
+	private int beta;
 	private int alphaUpdated;
 	private int betaUpdated;
 	private int value;
@@ -21,9 +21,28 @@ public class AlphaBetaState<M> {
 	 * @param beta The beta value
 	 */
 	public AlphaBetaState(int depth, int alpha, int beta) {
+		reset(depth, alpha, beta);
+	}
+	
+	/** Resets this state.
+	 * <br>After this call, this state is the same as a state built with {@link #AlphaBetaState(int, int, int)}.
+	 * It allows search algorithms to reuse the same instance instead of allocating a new one at each node.
+	 * @param depth The depth
+	 * @param alpha The alpha value
+	 * @param beta The beta value
+	 * @return this
+	 */
+	public AlphaBetaState<M> reset(int depth, int alpha, int beta) {
 		this.depth = depth;
 		this.alpha = alpha;
 		this.beta = beta;
+		this.alphaUpdated = 0;
+		this.betaUpdated = 0;
+		this.value = 0;
+		this.valueSet = false;
+		this.alphaBetaUpdated = false;
+		this.bestMove = null;
+		return this;
 	}
 
 	/** Gets the depth.
@@ -10,6 +10,7 @@ import com.fathzer.games.MoveGenerator;
  * <br>It restores all best moves, exact, lower and upper values records recorded at a higher depth (closer to the root of evaluation)
  * (see <a href="https://en.wikipedia.org/wiki/Negamax#Negamax_with_alpha_beta_pruning">here</a>).
  * <br>Here are the overwrite rules:<ul>
+ * <li>Always replace entries stored during a previous search (see {@link TranspositionTableEntry#getAge()})</li>
  * <li>Never replace exact entries by inexact ones</li>
  * <li>Always replace inexact entries by exact ones</li>
  * <li>In other cases, replace entries if new one has higher depth</li>
@@ -18,16 +19,25 @@ import com.fathzer.games.MoveGenerator;
  * @param <B> The type of move generator
  */
 public class BasicPolicy<M, B extends MoveGenerator<M>> implements TranspositionTablePolicy<M, B> {
+	private final ReplacementValidator<M> validator = this::shouldReplace;
+	
 	@Override
 	public AlphaBetaState<M> accept(TranspositionTableEntry<M> entry, int depth, int alpha, int beta, IntUnaryOperator fromTTScoreConverter) {
-		final AlphaBetaState<M> state = new AlphaBetaState<>(depth, alpha, beta);
+		return accept(entry, new AlphaBetaState<>(depth, alpha, beta), fromTTScoreConverter);
+	}
+
+	/** {@inheritDoc}
+	 * <br>This implementation updates and returns <code>state</code>.
+	 */
+	@Override
+	public AlphaBetaState<M> accept(TranspositionTableEntry<M> entry, AlphaBetaState<M> state, IntUnaryOperator fromTTScoreConverter) {
     	if (entry!=null && entry.isValid()) {
-    		if (entry.getDepth()>=depth) {
+    		if (entry.getDepth()>=state.getDepth()) {
 				final int value = fromTTScoreConverter.applyAsInt(entry.getValue());
     			if (EXACT==entry.getEntryType()) {
 					state.setValue(value);
     			} else {
-    				acceptNonExactRecord(entry, alpha, beta, value, state);
+    				acceptNonExactRecord(entry, state.getAlpha(), state.getBeta(), value, state);
     			}
     		}
     		state.setBestMove(entry.getMove());
@@ -76,7 +86,7 @@ public class BasicPolicy<M, B extends MoveGenerator<M>> implements Transposition
     		type = EXACT;
     	}
     	// Update the transposition table
-		return table.store(key, type, state.getDepth(), toTTScoreConverter.applyAsInt(state.getValue()), state.getBestMove(), p-> shouldReplace(p, key, state.getDepth(), type));
+		return table.store(key, type, state.getDepth(), toTTScoreConverter.applyAsInt(state.getValue()), state.getBestMove(), validator);
 	}
 
 	/** Checks whether an entry should be replaced by new data.
@@ -86,6 +96,7 @@ public class BasicPolicy<M, B extends MoveGenerator<M>> implements Transposition
 	 * @param newType The new entry type
 	 * @return true if the entry should be replaced, false otherwise. The default implementation returns true if:<ul>
 	 * <li>of course, the current entry is invalid</li>
+	 * <li>the current entry was stored during a previous search (its age is &gt; 0)</li>
 	 * <li>the new entry is exact and the current entry is not exact</li>
 	 * <li>the current entry and the new depth is &gt; the current depth</li>
 	 * </ul>
@@ -95,6 +106,10 @@ public class BasicPolicy<M, B extends MoveGenerator<M>> implements Transposition
 			// Always write if no entry is in the table
 			return true;
 		}
+		if (entry.getAge()>0) {
+			// Entry is stale, it was stored during a previous search
+			return true;
+		}
 		if (entry.getEntryType()==EXACT && newType!=EXACT) {
 			// Never replace exact by non exact
 			return false;
@@ -0,0 +1,126 @@
+package com.fathzer.games.ai.transposition;
+
+import java.util.function.Predicate;
+
+import com.fathzer.games.MoveGenerator;
+
+/**
+ * A transposition table that groups its entries in buckets of {@value #BUCKET_SIZE} entries.
+ * <br>Unlike {@link OneLongEntryTranspositionTable}, which is <i>direct-mapped</i> (a key can only be stored at one place),
+ * a key can be stored in any entry of its bucket. So, a collision does not necessarily evict a valuable entry.
+ * <br>As an entry is stored in 16 bytes, a bucket fits in a 64 bytes cache line, which limits the memory traffic when probing the table
+ * (Please note the JVM does not guarantee the table is aligned on cache lines).
+ * <br>When a new key is stored in a full bucket, the entry to replace (the <i>victim</i>) is the one with the lowest
+ * {@link #getReplacementPriority(int, EntryType, int) priority}, which depends on its depth, its type and its age.
+ * The validator passed to {@link #store(long, EntryType, int, int, Object, Predicate)} (or {@link #store(long, EntryType, int, int, Object, ReplacementValidator)}) is then applied to this victim, as it
+ * would be applied to the only possible entry in a direct mapped table.
+ * @param <M> The type of moves
+ * @param <B> The type of move generator
+ */
+public abstract class BucketedTranspositionTable<M, B extends MoveGenerator<M>> extends OneLongEntryTranspositionTable<M, B> {
+	/** The number of entries per bucket. */
+	public static final int BUCKET_SIZE = 4;
+	private static final int BUCKET_LENGTH = BUCKET_SIZE * SLOTS;
+
+	private final long bucketCount;
+
+	/** Constructor.
+	 * @param size The table size
+	 * @param unit The unit used to pass the size
+	 * @throws IllegalArgumentException if size is too small to contain at least one bucket.
+	 */
+	protected BucketedTranspositionTable(int size, SizeUnit unit) {
+		this(size, unit, false);
+	}
+
+	/** Constructor.
+	 * @param size The table size
+	 * @param unit The unit used to pass the size
+	 * @param lockFree true to build a lock-free table, false to build a table that uses a read/write lock.
+	 * @throws IllegalArgumentException if size is too small to contain at least one bucket.
+	 */
+	protected BucketedTranspositionTable(int size, SizeUnit unit, boolean lockFree) {
+		super(size, unit, lockFree);
+		this.bucketCount = super.getLongSize() / BUCKET_SIZE;
+		if (bucketCount==0) {
+			throw new IllegalArgumentException("Table is too small");
+		}
+	}
+
+	private long getBucketIndex(long key) {
+		return Math.abs(key % bucketCount) * BUCKET_LENGTH;
+	}
+
+	@Override
+	long probe(long key) {
+		final long bucket = getBucketIndex(key);
+		final boolean statsEnabled = getStatistics().isEnabled();
+		boolean occupied = false;
+		for (long index = bucket; index < bucket + BUCKET_LENGTH; index += SLOTS) {
+			final long value = read(index, key);
+			if (value!=0) {
+				if (statsEnabled) {
+					getStatistics().probeDone(true, false);
+				}
+				return value;
+			}
+			if (statsEnabled && !occupied) {
+				occupied = getValue(index)!=0;
+			}
+		}
+		if (statsEnabled) {
+			getStatistics().probeDone(false, occupied);
+		}
+		return 0;
+	}
+
+	@Override
+	boolean store(long key, long newValue, ReplacementValidator<M> validator) {
+		final long bucket = getBucketIndex(key);
+		long victim = -1;
+		int victimPriority = Integer.MAX_VALUE;
+		for (long index = bucket; index < bucket + BUCKET_LENGTH; index += SLOTS) {
+			final long value = getValue(index);
+			if (value==0) {
+				if (victimPriority!=Integer.MIN_VALUE) {
+					// First empty entry, remember it, but continue to search for an entry with the same key
+					victim = index;
+					victimPriority = Integer.MIN_VALUE;
+				}
+			} else if (getStoredKey(index)==key) {
+				// Key is already in the bucket
+				victim = index;
+				break;
+			} else {
+				final int priority = getReplacementPriority(OneLongEntry.getDepth(value), OneLongEntry.getEntryType(value), getAge(value));
+				if (priority<victimPriority) {
+					victim = index;
+					victimPriority = priority;
+				}
+			}
+		}
+		return write(victim, key, newValue, validator);
+	}
+
+	/** Gets the priority of an entry to remain in the table.
+	 * <br>When a new key has to be stored in a full bucket, the entry with the lowest priority is the one that will be replaced.
+	 * @param depth The depth of the entry
+	 * @param type The type of the entry
+	 * @param age The age of the entry: The number of times {@link #newPosition(MoveGenerator)} was called since the entry was stored (0 for an entry stored during current search).
+	 * @return an integer. The default implementation returns depth - 8*age, plus 1 for exact entries.
+	 * This means a deep entry is kept, unless it is too old.
+	 */
+	protected int getReplacementPriority(int depth, EntryType type, int age) {
+		return depth - 8*age + (type==EntryType.EXACT ? 1 : 0);
+	}
+
+	@Override
+	int getEntriesPerBucket() {
+		return BUCKET_SIZE;
+	}
+
+	@Override
+	public long getLongSize() {
+		return bucketCount * BUCKET_SIZE;
+	}
+}
@@ -0,0 +1,78 @@
+package com.fathzer.games.ai.transposition;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/** A {@link LongArray} stored outside the java heap.
+ * <br>As a direct {@link ByteBuffer} is limited to 2GB, the array is split in chunks of direct buffers.
+ * Its length is then only limited by the available memory.
+ * <br>Each chunk is aligned on a 64 bytes boundary (the usual size of a cache line).
+ * <br>Chunks can be allocated by several threads. As the JVM zeroes a direct buffer when it is allocated, this also pre-touches the memory pages in parallel.
+ * <br>The memory is released when this instance is garbage collected.
+ */
+class DirectLongArray implements LongArray {
+	private static final VarHandle HANDLE = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+	private static final int DEFAULT_CHUNK_SHIFT = 23; // 2^23 longs = 64MB per chunk
+	private static final int ALIGNMENT = 64;
+	
+	private final ByteBuffer[] chunks;
+	private final long length;
+	private final int chunkShift;
+	private final long chunkMask;
+	
+	/** Constructor.
+	 * @param length The array's length
+	 */
+	DirectLongArray(long length) {
+		this(length, 1);
+	}
+
+	/** Constructor.
+	 * @param length The array's length
+	 * @param parallelism The number of threads used to allocate the chunks.
+	 */
+	DirectLongArray(long length, int parallelism) {
+		this(length, DEFAULT_CHUNK_SHIFT, parallelism);
+	}
+
+	/** Constructor.
+	 * @param length The array's length
+	 * @param chunkShift The log2 of the number of longs in a chunk.
+	 * @param parallelism The number of threads used to allocate the chunks.
+	 */
+	DirectLongArray(long length, int chunkShift, int parallelism) {
+		if (length<0) {
+			throw new IllegalArgumentException();
+		}
+		this.length = length;
+		this.chunkShift = chunkShift;
+		final long chunkSize = 1L << chunkShift;
+		this.chunkMask = chunkSize - 1;
+		final int nbChunks = (int) ((length + chunkMask) >> chunkShift);
+		this.chunks = new ByteBuffer[nbChunks];
+		ParallelTasks.run(parallelism, nbChunks, i -> {
+			final long remaining = length - i*chunkSize;
+			final int bytes = (int) (Math.min(chunkSize, remaining) * Long.BYTES);
+			// Allocate extra bytes to be able to align the buffer (alignedSlice aligns both the start and the end of the buffer)
+			final int alignedBytes = (bytes + ALIGNMENT - 1) & -ALIGNMENT;
+			chunks[i] = ByteBuffer.allocateDirect(alignedBytes + ALIGNMENT).alignedSlice(ALIGNMENT).slice(0, bytes).order(ByteOrder.nativeOrder());
+		});
+	}
+
+	@Override
+	public long length() {
+		return length;
+	}
+
+	@Override
+	public long get(long index) {
+		return (long) HANDLE.getOpaque(chunks[(int)(index >> chunkShift)], (int)(index & chunkMask) * Long.BYTES);
+	}
+
+	@Override
+	public void set(long index, long value) {
+		HANDLE.setOpaque(chunks[(int)(index >> chunkShift)], (int)(index & chunkMask) * Long.BYTES, value);
+	}
+}
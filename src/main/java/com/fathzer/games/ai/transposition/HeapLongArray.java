@@ -0,0 +1,36 @@
+package com.fathzer.games.ai.transposition;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/** A {@link LongArray} stored in the java heap.
+ * <br>Its length is limited to {@link Integer#MAX_VALUE}.
+ */
+class HeapLongArray implements LongArray {
+	private final AtomicLongArray array;
+	
+	/** Constructor.
+	 * @param length The array's length
+	 * @throws IllegalArgumentException if length is greater than {@link Integer#MAX_VALUE}
+	 */
+	HeapLongArray(long length) {
+		if (length>Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Table is too big to be stored in the heap");
+		}
+		this.array = new AtomicLongArray((int)length);
+	}
+
+	@Override
+	public long length() {
+		return array.length();
+	}
+
+	@Override
+	public long get(long index) {
+		return array.getOpaque((int)index);
+	}
+
+	@Override
+	public void set(long index, long value) {
+		array.setOpaque((int)index, value);
+	}
+}
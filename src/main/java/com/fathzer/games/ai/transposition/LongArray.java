@@ -0,0 +1,25 @@
+package com.fathzer.games.ai.transposition;
+
+/** An array of longs indexed by a long.
+ * <br>It is the storage of {@link OneLongEntryTranspositionTable}.
+ * <br>Accesses are performed in <a href="https://docs.oracle.com/en/java/javase/17/docs/api/java.base/java/lang/invoke/VarHandle.html#getOpaque(java.lang.Object...)">opaque mode</a>:
+ * reads and writes of a long are atomic, but they provide no ordering guarantee.
+ */
+interface LongArray {
+	/** Gets the length of this array.
+	 * @return a positive long
+	 */
+	long length();
+	
+	/** Gets the value at an index.
+	 * @param index The index
+	 * @return The value
+	 */
+	long get(long index);
+
+	/** Sets the value at an index.
+	 * @param index The index
+	 * @param value The new value
+	 */
+	void set(long index, long value);
+}
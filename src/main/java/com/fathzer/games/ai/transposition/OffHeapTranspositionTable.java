@@ -0,0 +1,47 @@
+package com.fathzer.games.ai.transposition;
+
+import com.fathzer.games.MoveGenerator;
+
+/**
+ * A {@link OneLongEntryTranspositionTable} whose entries are stored outside the java heap.
+ * <br>The table is backed by direct byte buffers, so:<ul>
+ * <li>Its size is only limited by the available memory (it can be far greater than the 16GB limit of an on-heap table).
+ * Please note that the JVM limits the total size of direct buffers; use the <code>-XX:MaxDirectMemorySize</code> option to increase this limit.</li>
+ * <li>It does not increase the heap size, so the garbage collector does not have to deal with it.</li>
+ * </ul>
+ * The memory is released when the table is garbage collected.
+ * <br>Building a table of several GB takes time, as the memory is zeroed by the JVM when it is allocated.
+ * The {@link #OffHeapTranspositionTable(int, SizeUnit, boolean, int)} constructor allows to allocate it (and to pre-touch its memory pages) with several threads.
+ * @param <M> The type of moves
+ * @param <B> The type of move generator
+ */
+public abstract class OffHeapTranspositionTable<M, B extends MoveGenerator<M>> extends OneLongEntryTranspositionTable<M, B> {
+	/** Constructor.
+	 * @param size The table size
+	 * @param unit The unit used to pass the size
+	 */
+	protected OffHeapTranspositionTable(int size, SizeUnit unit) {
+		this(size, unit, false);
+	}
+
+	/** Constructor.
+	 * @param size The table size
+	 * @param unit The unit used to pass the size
+	 * @param lockFree true to build a lock-free table, false to build a table that uses a read/write lock.
+	 */
+	protected OffHeapTranspositionTable(int size, SizeUnit unit, boolean lockFree) {
+		this(size, unit, lockFree, 1);
+	}
+
+	/** Constructor.
+	 * @param size The table size
+	 * @param unit The unit used to pass the size
+	 * @param lockFree true to build a lock-free table, false to build a table that uses a read/write lock.
+	 * @param parallelism The number of threads used to allocate the table, and then to clear it (see {@link #setParallelism(int)}).
+	 * @throws IllegalArgumentException if parallelism is &lt; 1
+	 */
+	protected OffHeapTranspositionTable(int size, SizeUnit unit, boolean lockFree, int parallelism) {
+		super(size, unit, lockFree, length -> new DirectLongArray(length, parallelism));
+		setParallelism(parallelism);
+	}
+}
@@ -7,7 +7,8 @@ import java.util.function.IntFunction;
  * <li>score should be a short (16 bits)</li>
  * <li>depth is limited to 127 (8 bits), of course, it should be &gt;= 0</li>
  * <li>move can be represented as a int (32 bits)</li>
- * </ul> 
+ * </ul>
+ * The 6 remaining bits are used to store the generation of the table when the entry was stored.
  */
 class OneLongEntry<M> implements TranspositionTableEntry<M> {
 	private static final long MOVE_MASK = 0xffffffffL; // 32 bits
@@ -17,11 +18,14 @@ class OneLongEntry<M> implements TranspositionTableEntry<M> {
 	private static final long DEPTH_MASK = 0xff000000000000L; // 8 bits
 	private static final int TYPE_SHIFT = 56;
 	private static final long TYPE_MASK = 0x300000000000000L; // 2 bits
-	// It remain 4 bits not used
+	private static final int GENERATION_SHIFT = 58;
+	/** The maximum generation that can be stored in an entry. */
+	static final int MAX_GENERATION = 0x3f; // 6 bits
 	
 	private final IntFunction<M> toMove;
 	private long key;
 	private long value;
+	private int age;
 	
 	/** Constructor.
 	 * @param toMove A function able to convert an integer to a move
@@ -29,9 +33,14 @@ class OneLongEntry<M> implements TranspositionTableEntry<M> {
 	OneLongEntry(IntFunction<M> toMove) {
 		this.toMove = toMove;
 	}
-	OneLongEntry<M> set(long key, long value) {
+	boolean isConverter(IntFunction<M> toMove) {
+		return this.toMove==toMove;
+	}
+	
+	OneLongEntry<M> set(long key, long value, int age) {
 		this.key = key;
 		this.value = value;
+		this.age = age;
 		return this;
 	}
 
@@ -47,19 +56,32 @@ class OneLongEntry<M> implements TranspositionTableEntry<M> {
 
 	@Override
 	public EntryType getEntryType() {
+		return getEntryType(value);
+	}
+	
+	static EntryType getEntryType(long value) {
 		return EntryType.ALL.get((int) ((value & TYPE_MASK)>>TYPE_SHIFT));
 	}
 	
-	static long toLong(EntryType type, byte depth, short value, int move) {
+	static long toLong(EntryType type, byte depth, short value, int move, int generation) {
 		return type==EntryType.INVALID ? 0 :
+			(((long)generation) << GENERATION_SHIFT) |
 			((((long)type.ordinal()) << TYPE_SHIFT) & TYPE_MASK) |
 			((((long)depth) << DEPTH_SHIFT) & DEPTH_MASK) |
 			((((long)value) << SCORE_SHIFT) & SCORE_MASK) |
 			(move & MOVE_MASK);
 	}
 
+	static int getGeneration(long value) {
+		return (int) (value >>> GENERATION_SHIFT);
+	}
+
 	@Override
 	public int getDepth() {
+		return getDepth(value);
+	}
+	
+	static int getDepth(long value) {
 		return (byte) ((value & DEPTH_MASK) >> DEPTH_SHIFT);
 	}
 
@@ -68,6 +90,11 @@ class OneLongEntry<M> implements TranspositionTableEntry<M> {
 		return (short) ((value & SCORE_MASK) >> SCORE_SHIFT);
 	}
 	
+	@Override
+	public int getAge() {
+		return age;
+	}
+	
 	@Override
 	public M getMove() {
 		return toMove.apply((int)(value & MOVE_MASK));
@@ -1,10 +1,14 @@
 package com.fathzer.games.ai.transposition;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
-import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntFunction;
+import java.util.function.LongFunction;
 import java.util.function.Predicate;
 
 import com.fathzer.games.MoveGenerator;
@@ -16,65 +20,231 @@ import com.fathzer.games.MoveGenerator;
  * <li>depth is limited to 127 (8 bits), of course, it should be &gt;= 0</li>
  * <li>move can be represented as a integer (32 bits)</li>
  * </ul>
+ * <br>The table can work in two modes:<ul>
+ * <li>The <i>locked</i> mode, the default one, uses a read/write lock to guarantee no thread reads an entry that is being written.</li>
+ * <li>The <i>lock-free</i> mode (see {@link #OneLongEntryTranspositionTable(int, SizeUnit, boolean)}) uses no lock at all.
+ * Instead, each key is stored <i>xored</i> with its entry (see <a href="https://www.chessprogramming.org/Shared_Hash_Table#Lock-less">Lockless hashing</a>).
+ * If two threads write concurrently the same slot, the key read back will not match the entry anymore and the slot will be considered as empty.
+ * This mode scales far better when the table is shared by a lot of search threads.</li>
+ * </ul>
+ * The table is stored in the java heap, which limits its size to 16GB. Use {@link OffHeapTranspositionTable} to build bigger tables.
+ * <br>Clearing a big table can be sped up by using several threads (see {@link #setParallelism(int)}).
+ * <br>The table content can be saved to a file and restored later (see {@link #save(Path)} and {@link #load(Path)}),
+ * which allows a restarted engine to benefit from the knowledge accumulated during previous searches.
  * @param <M> The type of moves
  * @param <B> The type of move generator
  */
 public abstract class OneLongEntryTranspositionTable<M, B extends MoveGenerator<M>> implements TranspositionTable<M, B> {
-	private static final int SLOTS = 2; // The number of long per record
-	private final AtomicLongArray table; // Used for transposition table
-	private final ReadWriteLock lock;
-	private final int size; // The number of slots the table will have
-	private int entryCount; // The number of currently occupied slots.
+	static final int SLOTS = 2; // The number of long per record
+	private static final int FILL_SAMPLE_SIZE = 1000; // The number of entries read to compute the fill rate
+	private static final int CLEAR_SEGMENT_SHIFT = 20; // The table is cleared by segments of 2^20 longs (8MB)
+	private final LongArray table; // Used for transposition table
+	private final ReadWriteLock lock; // null in lock-free mode
+	private final long size; // The number of slots the table will have
+	private final LongAdder entryCount = new LongAdder(); // The number of currently occupied slots (updated concurrently in lock-free mode).
+	private volatile int generation; // The current generation
 	private TranspositionTablePolicy<M, B> policy;
+	private int parallelism = 1; // The number of threads used to clear the table
+	private final TranspositionTableStatistics statistics = new TranspositionTableStatistics();
+	private final IntFunction<M> toMoveFunction = this::toMove;
+	// The entries passed to validators when an entry is stored 
+	private final ThreadLocal<OneLongEntry<M>> validatedEntries = ThreadLocal.withInitial(() -> new OneLongEntry<>(toMoveFunction));
 
 	/** Constructor.
 	 * @param size The table size
 	 * @param unit The unit used to pass the size
 	 */
 	protected OneLongEntryTranspositionTable(int size, SizeUnit unit) {
-		this.size = (int) ((long)size*unit.getSize()) / 8 / SLOTS;
-		table = new AtomicLongArray(this.size * SLOTS);
-		this.lock = new ReentrantReadWriteLock();
+		this(size, unit, false);
+	}
+	
+	/** Constructor.
+	 * @param size The table size
+	 * @param unit The unit used to pass the size
+	 * @param lockFree true to build a lock-free table, false to build a table that uses a read/write lock.
+	 * @throws IllegalArgumentException if size exceeds 16GB
+	 */
+	protected OneLongEntryTranspositionTable(int size, SizeUnit unit, boolean lockFree) {
+		this(size, unit, lockFree, HeapLongArray::new);
+	}
+	
+	/** Constructor.
+	 * @param size The table size
+	 * @param unit The unit used to pass the size
+	 * @param lockFree true to build a lock-free table, false to build a table that uses a read/write lock.
+	 * @param storageBuilder A function that builds the table storage from its length (in longs). 
+	 */
+	OneLongEntryTranspositionTable(int size, SizeUnit unit, boolean lockFree, LongFunction<LongArray> storageBuilder) {
+		this.size = ((long)size*unit.getSize()) / 8 / SLOTS;
+		table = storageBuilder.apply(this.size * SLOTS);
+		this.lock = lockFree ? null : new ReentrantReadWriteLock();
 		policy = new BasicPolicy<>();
 	}
 	
+	/** Checks whether this table is lock-free.
+	 * @return true if this table uses no lock
+	 */
+	public boolean isLockFree() {
+		return lock==null;
+	}
+	
 	@Override
 	public TranspositionTableEntry<M> get(long key) {
-		final int index = getKeyIndex(key);
-		final OneLongEntry<M> entry = new OneLongEntry<>(this::toMove);
+		return get(key, null);
+	}
+	
+	/** {@inheritDoc}
+	 * <br>This implementation reuses <code>entry</code> if it was returned by this table. 
+	 */
+	@Override
+	public TranspositionTableEntry<M> get(long key, TranspositionTableEntry<M> reusable) {
+		final OneLongEntry<M> entry = reusable instanceof OneLongEntry<M> e && e.isConverter(toMoveFunction) ? e : new OneLongEntry<>(toMoveFunction);
+		if (lock==null) {
+			return set(entry, key, probe(key));
+		}
 		lock.readLock().lock();
 		try {
-			return entry.set(key, table.get(index)==key ? table.get(index+1) : 0);
+			return set(entry, key, probe(key));
 		} finally {
 			lock.readLock().unlock();
 		}
 	}
+	
+	private OneLongEntry<M> set(OneLongEntry<M> entry, long key, long value) {
+		return entry.set(key, value, getAge(value));
+	}
+	
+	/** Gets the value associated with a key.
+	 * <br>This method is called by {@link #get(long)} after the read lock, if any, is acquired.
+	 * Subclasses that use another table layout (for instance several entries per key) can override it. 
+	 * @param key The key
+	 * @return the value associated with the key or 0 if the key is not in the table.
+	 */
+	long probe(long key) {
+		final long index = getKeyIndex(key);
+		final long value = read(index, key);
+		if (statistics.isEnabled()) {
+			statistics.probeDone(value!=0, value==0 && getValue(index)!=0);
+		}
+		return value;
+	}
+	
+	/** Reads the value stored at an index.
+	 * @param index The index of the entry in the table (see {@link #getStoredKey(long)})
+	 * @param key The expected key
+	 * @return the stored value or 0 if the key stored at index does not match <code>key</code>.
+	 */
+	final long read(long index, long key) {
+		final long value = getValue(index);
+		return (table.get(index) ^ value)==key ? value : 0;
+	}
+	
+	/** Gets the key stored at an index.
+	 * @param index The index of the entry in the table. Entries are stored in {@value #SLOTS} consecutive longs,
+	 * so the index of the n<sup>th</sup> entry is n*{@value #SLOTS}. 
+	 * @return The stored key. It is unspecified if the entry is not valid.
+	 */
+	final long getStoredKey(long index) {
+		return table.get(index) ^ table.get(index+1);
+	}
+	
+	/** Gets the value stored at an index.
+	 * @param index The index of the entry in the table (see {@link #getStoredKey(long)})
+	 * @return The stored value, 0 if the entry is not valid.
+	 */
+	final long getValue(long index) {
+		return table.get(index+1);
+	}
 
-	private int getKeyIndex(long key) {
-		return Math.abs((int) (key % size) * SLOTS);
+	private long getKeyIndex(long key) {
+		return Math.abs(key % size) * SLOTS;
 	}
 	
 	@Override
 	public boolean store(long key, EntryType type, int depth, int value, M move, Predicate<TranspositionTableEntry<M>> validator) {
-		final int index = getKeyIndex(key);
-		final OneLongEntry<M> entry = new OneLongEntry<>(this::toMove);
+		return store(key, type, depth, value, move, (p, k, d, t) -> validator.test(p));
+	}
+	
+	@Override
+	public boolean store(long key, EntryType type, int depth, int value, M move, ReplacementValidator<M> validator) {
+		final long newValue = OneLongEntry.toLong(type, (byte)depth, (short) value, toInt(move), generation);
+		if (lock==null) {
+			return store(key, newValue, validator);
+		}
 		lock.writeLock().lock();
 		try {
-			entry.set(table.get(index), table.get(index+1));
-			final boolean written = validator.test(entry);
-			if (written) {
-				if (!entry.isValid()) {
-					entryCount++;
-				}
-				table.set(index, key);
-				table.set(index+1, OneLongEntry.toLong(type, (byte)depth, (short) value, toInt(move)));
-			}
-			return written;
+			return store(key, newValue, validator);
 		} finally {
 			lock.writeLock().unlock();
 		}
 	}
 	
+	/** Stores a value.
+	 * <br>This method is called by {@link #store(long, EntryType, int, int, Object, ReplacementValidator)} after the write lock, if any, is acquired.
+	 * Subclasses that use another table layout (for instance several entries per key) can override it.
+	 * @param key The key
+	 * @param newValue The value to store
+	 * @param validator The validator passed to {@link #store(long, EntryType, int, int, Object, ReplacementValidator)}
+	 * @return true if the value was written
+	 */
+	boolean store(long key, long newValue, ReplacementValidator<M> validator) {
+		return write(getKeyIndex(key), key, newValue, validator);
+	}
+	
+	/** Writes a value at an index if the validator accepts to replace the entry currently stored at this index.
+	 * @param index The index of the entry in the table (see {@link #getStoredKey(long)})
+	 * @param key The key
+	 * @param newValue The value to store
+	 * @param validator The validator that decides if the current entry should be replaced
+	 * @return true if the value was written
+	 */
+	final boolean write(long index, long key, long newValue, ReplacementValidator<M> validator) {
+		final OneLongEntry<M> entry = validatedEntries.get();
+		final long oldValue = getValue(index);
+		set(entry, table.get(index) ^ oldValue, oldValue);
+		final boolean written = validator.shouldReplace(entry, key, OneLongEntry.getDepth(newValue), OneLongEntry.getEntryType(newValue));
+		if (statistics.isEnabled()) {
+			statistics.storeDone(written, entry.isValid() && entry.getKey()!=key);
+		}
+		if (written) {
+			if (!entry.isValid()) {
+				entryCount.increment();
+			}
+			// Keys are stored xored with their value in order to detect torn entries in lock-free mode
+			table.set(index, key ^ newValue);
+			table.set(index+1, newValue);
+		}
+		return written;
+	}
+	
+	/** Removes the entry stored at an index if it has a specific key.
+	 * @param index The index of the entry in the table (see {@link #getStoredKey(long)})
+	 * @param key The key of the entry to remove
+	 */
+	final void erase(long index, long key) {
+		if (read(index, key)!=0) {
+			table.set(index, 0);
+			table.set(index+1, 0);
+			entryCount.decrement();
+		}
+	}
+	
+	/** Increments the generation of this table.
+	 * <br>The generation is recorded in every stored entry. It allows to know how old an entry is (see {@link #getAge(long)}).
+	 * Entries stored before this call will have their age incremented.
+	 */
+	final void nextGeneration() {
+		generation = (generation+1) & OneLongEntry.MAX_GENERATION;
+	}
+	
+	/** Gets the age of a stored value.
+	 * @param value A value stored in the table
+	 * @return The number of generations elapsed since the value was stored (modulo {@value OneLongEntry#MAX_GENERATION}+1).
+	 */
+	final int getAge(long value) {
+		return (generation - OneLongEntry.getGeneration(value)) & OneLongEntry.MAX_GENERATION;
+	}
+	
 	@Override
 	public TranspositionTablePolicy<M, B> getPolicy() {
 		return policy;
@@ -100,38 +270,163 @@ public abstract class OneLongEntryTranspositionTable<M, B extends MoveGenerator<
 	/**
 	 * {@inheritDoc}
 	 * In this implementation, the whole table is cleared.
+	 * @throws com.fathzer.games.util.UncheckedException if the calling thread is interrupted while the table is cleared by several threads.
+	 * The table is then partially cleared and this method should be called again.
 	 */
 	@Override
 	public void newGame() {
 		// Clears the table
-		for (int i=0; i<table.length();i++) {
-			table.set(i, 0);
+		final long length = table.length();
+		final int segments = (int) ((length + (1L<<CLEAR_SEGMENT_SHIFT) - 1) >> CLEAR_SEGMENT_SHIFT);
+		ParallelTasks.run(parallelism, segments, segment -> {
+			final long end = Math.min(length, ((long)segment+1) << CLEAR_SEGMENT_SHIFT);
+			for (long i=(long)segment << CLEAR_SEGMENT_SHIFT; i<end;i++) {
+				table.set(i, 0);
+			}
+		});
+		this.entryCount.reset();
+		this.generation = 0;
+	}
+
+	/** Saves the content of this table to a file.
+	 * <br>The file is written through memory mapped regions, using {@link #getParallelism()} threads.
+	 * <br>The table should not be modified during the save. In locked mode, the write lock is acquired during the save,
+	 * in lock-free mode, it is the caller's responsibility to ensure no search is running.
+	 * @param file The path of the file. If the file already exists, it is replaced.
+	 * @throws IOException If an I/O error occurs (an {@link java.io.InterruptedIOException} if the calling thread is interrupted during the save)
+	 * @see #load(Path)
+	 */
+	public void save(Path file) throws IOException {
+		if (lock!=null) {
+			lock.writeLock().lock();
 		}
-		this.entryCount = 0;
+		try {
+			new TableSnapshot(getEntriesPerBucket(), table.length(), entryCount.sum(), generation).write(file, table, parallelism);
+		} finally {
+			if (lock!=null) {
+				lock.writeLock().unlock();
+			}
+		}
+	}
+
+	/** Replaces the content of this table by the one saved in a file by {@link #save(Path)}.
+	 * <br>The file should have been saved by a table with the same size and the same layout (for instance, a {@link BucketedTranspositionTable}
+	 * can't load a file saved by a {@link OneLongEntryTranspositionTable}). It can have been saved by a table stored in heap or off heap.
+	 * <br>The same precautions as in {@link #save(Path)} apply about concurrent searches.
+	 * @param file The path of the file
+	 * @throws IOException If an I/O error occurs or if the file is not a compatible table file. If the error occurs while reading the table's data,
+	 * the table content is unspecified and the table should be cleared using {@link #newGame()}.
+	 */
+	public void load(Path file) throws IOException {
+		if (lock!=null) {
+			lock.writeLock().lock();
+		}
+		try {
+			final TableSnapshot snapshot = new TableSnapshot(getEntriesPerBucket(), table.length(), entryCount.sum(), generation);
+			snapshot.read(file, table, parallelism);
+			this.entryCount.reset();
+			this.entryCount.add(snapshot.entryCount);
+			this.generation = snapshot.generation;
+		} finally {
+			if (lock!=null) {
+				lock.writeLock().unlock();
+			}
+		}
+	}
+
+	/** Gets the number of entries that can be used to store a key.
+	 * <br>It is used to prevent loading a file saved by a table with another layout.
+	 * @return 1 as this table is direct mapped
+	 */
+	int getEntriesPerBucket() {
+		return 1;
+	}
+
+	/** Gets the number of threads used to clear, save and load the table.
+	 * @return a positive int
+	 * @see #setParallelism(int)
+	 */
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	/** Sets the number of threads used to clear the table when {@link #newGame()} is called, or to save and load it.
+	 * <br>Clearing a table of several GB with a single thread can take seconds. Using as many threads as the engine's search threads
+	 * allows to reduce this time. Threads are created only during the clear, so they do not compete with the search threads.
+	 * @param parallelism The number of threads to use (default is 1)
+	 * @throws IllegalArgumentException if parallelism is &lt; 1
+	 */
+	public void setParallelism(int parallelism) {
+		if (parallelism<1) {
+			throw new IllegalArgumentException("Parallelism should be strictly positive");
+		}
+		this.parallelism = parallelism;
 	}
 
 	/**
 	 * {@inheritDoc}
-	 * In this implementation, the whole table is cleared.
+	 * In this implementation, the table is not cleared, the generation of the table is incremented.
+	 * <br>Entries stored during previous searches remain available, but their {@link TranspositionTableEntry#getAge() age} is incremented,
+	 * which allows the policy to replace them (see {@link BasicPolicy}).
+	 * <br>Please note that the generation is stored in 6 bits, so an entry that was not replaced during 64 searches looks fresh again.
 	 */
 	@Override
 	public void newPosition(B board) {
-		newGame();
+		nextGeneration();
 	}
 	
 	@Override
 	public int getSize() {
+		return (int) Math.min(Integer.MAX_VALUE, getLongSize());
+	}
+	
+	@Override
+	public long getLongSize() {
 		return size;
 	}
 	
 	@Override
 	public int getEntryCount() {
-		return entryCount;
+		return (int) Math.min(Integer.MAX_VALUE, getLongEntryCount());
+	}
+	
+	/** {@inheritDoc}
+	 * <br>In lock-free mode, the count is approximate: when several threads store a new entry at the same index at the same time, each of them counts it.
+	 */
+	@Override
+	public long getLongEntryCount() {
+		return entryCount.sum();
+	}
+
+	/** {@inheritDoc}
+	 * <br>This implementation reads the first {@value #FILL_SAMPLE_SIZE} entries of the table (or all the entries if the table is smaller) and returns the permille
+	 * of them that were stored during the current search (entries stored during previous searches are considered as free, as they can be replaced).
+	 * So, the result is an approximation that does not depend on the (approximate in lock-free mode) {@link #getLongEntryCount()} value and is cheap to compute.
+	 */
+	@Override
+	public int getFillPermille() {
+		final long sampleSize = Math.min(FILL_SAMPLE_SIZE, getLongSize());
+		if (sampleSize==0) {
+			return 0;
+		}
+		int count = 0;
+		for (long i = 0; i < sampleSize; i++) {
+			final long value = getValue(i*SLOTS);
+			if (value!=0 && getAge(value)==0) {
+				count++;
+			}
+		}
+		return (int)(count*1000/sampleSize);
+	}
+
+	@Override
+	public TranspositionTableStatistics getStatistics() {
+		return statistics;
 	}
 
 	@Override
 	public final int getMemorySizeMB() {
-		return (int)(((long)this.size * 8 * SLOTS) / SizeUnit.MB.getSize());
+		return (int)((this.size * 8 * SLOTS) / SizeUnit.MB.getSize());
 	}
 
 	@Override
@@ -140,29 +435,26 @@ public abstract class OneLongEntryTranspositionTable<M, B extends MoveGenerator<
 	}
 
 	private class TTIterator implements Iterator<TranspositionTableEntry<M>> {
-		private final int max;
-		private int index = 0;
-		private OneLongEntry<M> entry = new OneLongEntry<>(OneLongEntryTranspositionTable.this::toMove);
+		private final long max;
+		private long index = 0;
+		private OneLongEntry<M> entry;
 		
 		private TTIterator() {
 			index = 0;
 			max = size*SLOTS;
-			entry = new OneLongEntry<>(OneLongEntryTranspositionTable.this::toMove);
 			prepareNext();
 		}
 		
 		private void prepareNext() {
+			entry = null;
 			while (index<max) {
 				final long value = table.get(index+1);
 				if (value!=0) {
-					entry.set(table.get(index), value);
+					entry = set(new OneLongEntry<>(toMoveFunction), table.get(index) ^ value, value);
 					break;
 				}
 				index += SLOTS;
 			}
-			if (index>=max) {
-				entry=null;
-			}
 		}
 		
 		@Override
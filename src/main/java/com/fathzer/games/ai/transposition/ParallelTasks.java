@@ -0,0 +1,69 @@
+package com.fathzer.games.ai.transposition;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntConsumer;
+
+import com.fathzer.games.util.UncheckedException;
+import com.fathzer.games.util.exec.CustomThreadFactory;
+import com.fathzer.games.util.exec.CustomThreadFactory.BasicThreadNameSupplier;
+
+/** A utility class that runs indexed tasks on a temporary pool of threads.
+ * <br>It is used to allocate and clear huge tables with several threads.
+ */
+final class ParallelTasks {
+	private ParallelTasks() {
+		super();
+	}
+
+	/** Runs tasks.
+	 * @param parallelism The maximum number of threads to use. If &lt;= 1, tasks are executed in the calling thread.
+	 * @param taskCount The number of tasks
+	 * @param task The task to execute. It receives the index of the task (between 0 and <code>taskCount</code>-1).
+	 * @throws UncheckedException if a task failed with a checked exception (runtime exceptions and errors are thrown as is)
+	 * or if the calling thread was interrupted while waiting for the tasks (its cause is then an {@link InterruptedException} and the thread's interrupt flag is set).
+	 * In such a case, some tasks may have not been executed.
+	 */
+	static void run(int parallelism, int taskCount, IntConsumer task) {
+		final int nbThreads = Math.min(parallelism, taskCount);
+		if (nbThreads<=1) {
+			for (int i = 0; i < taskCount; i++) {
+				task.accept(i);
+			}
+			return;
+		}
+		final ExecutorService exec = Executors.newFixedThreadPool(nbThreads, new CustomThreadFactory(new BasicThreadNameSupplier("Table filler"), true));
+		try {
+			final List<Callable<Void>> callables = new ArrayList<>(taskCount);
+			for (int i = 0; i < taskCount; i++) {
+				final int index = i;
+				callables.add(() -> {
+					task.accept(index);
+					return null;
+				});
+			}
+			for (Future<Void> future : exec.invokeAll(callables)) {
+				future.get();
+			}
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException re) {
+				throw re;
+			} else if (e.getCause() instanceof Error err) {
+				// For instance OutOfMemoryError when a chunk can't be allocated
+				throw err;
+			}
+			throw new UncheckedException(e.getCause());
+		} catch (InterruptedException e) {
+			// Never return normally, the caller would work with a partially done job
+			Thread.currentThread().interrupt();
+			throw new UncheckedException(e);
+		} finally {
+			exec.shutdown();
+		}
+	}
+}
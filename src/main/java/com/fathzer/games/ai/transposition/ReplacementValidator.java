@@ -0,0 +1,21 @@
+package com.fathzer.games.ai.transposition;
+
+import java.util.function.Predicate;
+
+/** A function that decides whether an entry of a transposition table should be replaced by a new one.
+ * <br>Unlike the {@link Predicate} passed to {@link TranspositionTable#store(long, EntryType, int, int, Object, Predicate)},
+ * it receives the new entry data. So, the same instance can be used for all the calls to {@link TranspositionTable#store(long, EntryType, int, int, Object, ReplacementValidator)},
+ * which avoids allocating a new predicate every time an entry is stored.
+ * @param <M> The type of moves
+ */
+@FunctionalInterface
+public interface ReplacementValidator<M> {
+	/** Checks whether an entry should be replaced by new data.
+	 * @param entry The entry that is currently in the transposition table
+	 * @param newKey The new entry key
+	 * @param newDepth The new entry depth
+	 * @param newType The new entry type
+	 * @return true if the entry should be replaced, false otherwise.
+	 */
+	boolean shouldReplace(TranspositionTableEntry<M> entry, long newKey, int newDepth, EntryType newType);
+}
@@ -0,0 +1,143 @@
+package com.fathzer.games.ai.transposition;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import com.fathzer.games.util.UncheckedException;
+
+/** The file format used to save and restore the content of a {@link LongArray} based transposition table.
+ * <br>The file starts with a {@value #HEADER_SIZE} bytes header that contains:<ul>
+ * <li>A magic number that identifies the file format (8 bytes)</li>
+ * <li>The format version (4 bytes)</li>
+ * <li>The number of entries per bucket of the table, as the place where a key is stored depends on it (4 bytes)</li>
+ * <li>The number of longs of the table (8 bytes)</li>
+ * <li>The number of entries in the table (8 bytes)</li>
+ * <li>The current generation of the table (4 bytes)</li>
+ * </ul>
+ * The header is followed by the longs of the table.
+ * <br>The data is read and written through memory mapped regions of the file, which is far faster than streams.
+ * Every number is stored in big endian order, so a file can be read on any platform.
+ */
+class TableSnapshot {
+	static final int HEADER_SIZE = 64;
+	static final int FORMAT_VERSION = 1;
+	private static final long MAGIC = 0x4661746854540000L; // "FathTT" followed by two zeros
+	private static final int REGION_SHIFT = 27; // The file is mapped by regions of 2^27 longs (1GB)
+
+	final int entriesPerBucket;
+	final long length;
+	long entryCount;
+	int generation;
+
+	/** Constructor.
+	 * @param entriesPerBucket The number of entries per bucket of the table
+	 * @param length The number of longs of the table
+	 * @param entryCount The number of entries in the table
+	 * @param generation The current generation of the table
+	 */
+	TableSnapshot(int entriesPerBucket, long length, long entryCount, int generation) {
+		this.entriesPerBucket = entriesPerBucket;
+		this.length = length;
+		this.entryCount = entryCount;
+		this.generation = generation;
+	}
+
+	/** Writes a table to a file.
+	 * <br>If the file already exists, it is replaced.
+	 * @param file The file path
+	 * @param table The table's content
+	 * @param parallelism The number of threads used to write the data
+	 * @throws IOException If an I/O error occurs (an {@link InterruptedIOException} if the calling thread is interrupted during the copy)
+	 */
+	void write(Path file, LongArray table, int parallelism) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+			header.putLong(MAGIC).putInt(FORMAT_VERSION).putInt(entriesPerBucket).putLong(length).putLong(entryCount).putInt(generation);
+			header.clear();
+			channel.write(header, 0);
+			copy(channel, MapMode.READ_WRITE, parallelism, (region, start) -> {
+				for (int i = 0; i < region.capacity(); i++) {
+					region.put(i, table.get(start + i));
+				}
+			});
+		}
+	}
+
+	/** Reads a table from a file.
+	 * <br>The header of the file should be compatible with this snapshot's one. If it is, the entry count and the generation of this snapshot
+	 * are replaced by the ones of the file.
+	 * @param file The file path
+	 * @param table The table where to store the data
+	 * @param parallelism The number of threads used to read the data
+	 * @throws IOException If an I/O error occurs or if the file is not a valid snapshot of the table (bad format, size, etc...).
+	 * An {@link InterruptedIOException} is thrown if the calling thread is interrupted during the copy.
+	 */
+	void read(Path file, LongArray table, int parallelism) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+			if (channel.size() < HEADER_SIZE || channel.read(header, 0) != HEADER_SIZE) {
+				throw new IOException("File is too short to be a transposition table");
+			}
+			header.flip();
+			if (header.getLong() != MAGIC) {
+				throw new IOException("File is not a transposition table");
+			}
+			final int version = header.getInt();
+			if (version != FORMAT_VERSION) {
+				throw new IOException("Unsupported format version "+version);
+			}
+			if (header.getInt() != entriesPerBucket || header.getLong() != length) {
+				throw new IOException("File was saved from a table with another size or layout");
+			}
+			if (channel.size() != HEADER_SIZE + length * Long.BYTES) {
+				throw new IOException("File is truncated");
+			}
+			final long count = header.getLong();
+			final int gen = header.getInt();
+			copy(channel, MapMode.READ_ONLY, parallelism, (region, start) -> {
+				for (int i = 0; i < region.capacity(); i++) {
+					table.set(start + i, region.get(i));
+				}
+			});
+			this.entryCount = count;
+			this.generation = gen;
+		}
+	}
+
+	@FunctionalInterface
+	private interface RegionCopier {
+		void copy(LongBuffer region, long start);
+	}
+
+	private void copy(FileChannel channel, MapMode mode, int parallelism, RegionCopier copier) throws IOException {
+		final long regionLength = 1L << REGION_SHIFT;
+		final int regions = (int) ((length + regionLength - 1) >> REGION_SHIFT);
+		try {
+			ParallelTasks.run(parallelism, regions, region -> {
+				final long start = region * regionLength;
+				final long size = Math.min(regionLength, length - start);
+				try {
+					copier.copy(channel.map(mode, HEADER_SIZE + start * Long.BYTES, size * Long.BYTES).asLongBuffer(), start);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		} catch (UncheckedException e) {
+			if (e.getCause() instanceof InterruptedException) {
+				final InterruptedIOException ex = new InterruptedIOException("Copy was interrupted");
+				ex.initCause(e.getCause());
+				throw ex;
+			}
+			throw e;
+		}
+	}
+}
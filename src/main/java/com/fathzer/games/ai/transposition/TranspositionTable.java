@@ -24,6 +24,17 @@ public interface TranspositionTable<M, B extends MoveGenerator<M>> {
 	 */
 	TranspositionTableEntry<M> get(long key);
 	
+	/** Gets a table entry, reusing an entry previously returned by this table.
+	 * <br>This method allows search algorithms to probe the table without allocating a new entry at each call.
+	 * @param key The key
+	 * @param entry An entry previously returned by this table or null.
+	 * @return a table entry, or null (see {@link #get(long)}). It can be the <code>entry</code> argument with its content replaced, or a new instance.
+	 * <br>The default implementation ignores <code>entry</code> and returns {@link #get(long)}.
+	 */
+	default TranspositionTableEntry<M> get(long key, TranspositionTableEntry<M> entry) {
+		return get(key);
+	}
+	
 	/** Sets a key entry.
 	 * <br>If a key already exists in the same table slot, it is replaced.
 	 * @param key The entry's key
@@ -36,6 +47,22 @@ public interface TranspositionTable<M, B extends MoveGenerator<M>> {
 	 */
 	boolean store(long key, EntryType type, int depth, int value, M move, Predicate<TranspositionTableEntry<M>> validator);
 	
+	/** Sets a key entry.
+	 * <br>This method is the same as {@link #store(long, EntryType, int, int, Object, Predicate)}, except the validator receives the new entry data.
+	 * So, it allows callers to use the same validator for all the calls and store data without allocating anything.
+	 * @param key The entry's key
+	 * @param type The entry's type
+	 * @param depth The search depth at which the entry is stored
+	 * @param value The entry's value
+	 * @param move The entry's move
+	 * @param validator a validator that returns true if the previous entry which is passed to the validator should be replaced
+ 	 * @return true if state is stored, false if it is ignored
+ 	 * <br>The default implementation calls {@link #store(long, EntryType, int, int, Object, Predicate)} with a predicate that calls the validator.
+	 */
+	default boolean store(long key, EntryType type, int depth, int value, M move, ReplacementValidator<M> validator) {
+		return store(key, type, depth, value, move, p -> validator.shouldReplace(p, key, depth, type));
+	}
+	
 	/** Called when position changes.
 	 * <br>On this event, the table can clean itself, or increment a generation counter in Entry generation.
 	 * @param board The new position
@@ -116,10 +143,18 @@ public interface TranspositionTable<M, B extends MoveGenerator<M>> {
 	}
 	
 	/** Gets the maximum entry count in the table.
-	 * @return an integer
+	 * @return an integer. If the table has more than Integer.MAX_VALUE entries, Integer.MAX_VALUE is returned (see {@link #getLongSize()}).
 	 */
 	int getSize();
 	
+	/** Gets the maximum entry count in the table as a long.
+	 * <br>Tables of more than Integer.MAX_VALUE entries should override this method, the default implementation returns {@link #getSize()}.
+	 * @return a positive long
+	 */
+	default long getLongSize() {
+		return getSize();
+	}
+	
 	/** Gets the table table's memory size expressed in MBytes.
 	 * @return an integer
 	 */
@@ -137,8 +172,35 @@ public interface TranspositionTable<M, B extends MoveGenerator<M>> {
 	
 	/** Gets the number of entries currently stored in the table.
 	 * @return an integer. A negative value means that the table does not support entry count.
+	 * If the table contains more than Integer.MAX_VALUE entries, Integer.MAX_VALUE is returned (see {@link #getLongEntryCount()}).
 	 */
 	default int getEntryCount() {
 		return -1;
 	}
+	
+	/** Gets the number of entries currently stored in the table as a long.
+	 * <br>Tables of more than Integer.MAX_VALUE entries should override this method, the default implementation returns {@link #getEntryCount()}.
+	 * @return a long. A negative value means that the table does not support entry count.
+	 */
+	default long getLongEntryCount() {
+		return getEntryCount();
+	}
+
+	/** Gets the fill rate of the table.
+	 * <br>The default implementation computes it from {@link #getLongEntryCount()} and {@link #getLongSize()}.
+	 * @return The permille of the table that is filled (between 0 and 1000). A negative value means that the table does not support fill rate.
+	 */
+	default int getFillPermille() {
+		final long count = getLongEntryCount();
+		final long size = getLongSize();
+		return count<0 || size==0 ? -1 : (int)(count*1000/size);
+	}
+
+	/** Gets the statistics of this table.
+	 * <br>This method is optional, the default implementation returns null.
+	 * @return The statistics or null if the table does not record statistics.
+	 */
+	default TranspositionTableStatistics getStatistics() {
+		return null;
+	}
 }
@@ -37,4 +37,14 @@ public interface TranspositionTableEntry<M> {
 	 * @return a move
 	 */
 	M getMove();
+	
+	/** Gets the entry's age.
+	 * <br>Tables that are not cleared between searches can keep track of the search during which an entry was stored.
+	 * This allows policies to replace entries stored during previous searches.
+	 * @return The number of searches (calls to {@link TranspositionTable#newPosition(com.fathzer.games.MoveGenerator)}) since the entry was stored.
+	 * The default implementation returns 0 (the entry was stored during the current search).
+	 */
+	default int getAge() {
+		return 0;
+	}
 }
@@ -24,6 +24,20 @@ public interface TranspositionTablePolicy<M, B extends MoveGenerator<M>> {
      */
 	AlphaBetaState<M> accept(TranspositionTableEntry<M> entry, int depth, int alpha, int beta, IntUnaryOperator fromTTScoreConverter);
 	
+	/** Processes a transposition table entry using a caller provided state.
+	 * <br>This method is the same as {@link #accept(TranspositionTableEntry, int, int, int, IntUnaryOperator)}, except the depth, alpha and beta values
+	 * are read from <code>state</code>. It allows search algorithms to reuse their states instead of allocating a new one at each node.
+	 * @param entry The entry
+	 * @param state A state already {@link AlphaBetaState#reset(int, int, int) reset} with the current depth, alpha and beta values.
+	 * @param fromTTScoreConverter A function that will convert the value stored in the table to the value effectively returned in this method's result.
+	 * @return The state that should be applied (see {@link #accept(TranspositionTableEntry, int, int, int, IntUnaryOperator)}).
+	 * <br>The default implementation returns the result of {@link #accept(TranspositionTableEntry, int, int, int, IntUnaryOperator)}, which is not <code>state</code>.
+	 * Implementations that want to avoid allocations should override this method and update <code>state</code>.
+	 */
+	default AlphaBetaState<M> accept(TranspositionTableEntry<M> entry, AlphaBetaState<M> state, IntUnaryOperator fromTTScoreConverter) {
+		return accept(entry, state.getDepth(), state.getAlpha(), state.getBeta(), fromTTScoreConverter);
+	}
+	
 	/** Updates the transposition table, if required, after iterating on possible moves.
 	 * <br>This method is responsible for deciding if something should be stored and what should be stored.
 	 * <br>It typically uses {@link TranspositionTable#store(long, EntryType, int, int, Object, java.util.function.Predicate)} method to store/update the entry 
@@ -0,0 +1,142 @@
+package com.fathzer.games.ai.transposition;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A class to keep track of transposition table usage.
+ * <br>It allows to size tables and to tune replacement policies.
+ * <br>Counters are {@link LongAdder} instances, which are far less subject to contention than atomic longs when the table is shared by several threads.
+ * Nevertheless, the statistics are disabled by default, as they are updated each time the table is probed or updated.
+ */
+public class TranspositionTableStatistics {
+	private final LongAdder probeCount = new LongAdder();
+	private final LongAdder hitCount = new LongAdder();
+	private final LongAdder keyMismatchCount = new LongAdder();
+	private final LongAdder cutoffCount = new LongAdder();
+	private final LongAdder storeCount = new LongAdder();
+	private final LongAdder rejectedStoreCount = new LongAdder();
+	private final LongAdder overwriteCount = new LongAdder();
+
+	private volatile boolean enabled;
+
+	/** Checks whether the statistics are enabled.
+	 * @return true if the statistics are enabled, false otherwise (which is the default)
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/** Sets whether the statistics are enabled.
+	 * @param enabled true to enable the statistics, false to disable them
+	 */
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	/** Sets all statistics to zero. */
+	public void clear() {
+		probeCount.reset();
+		hitCount.reset();
+		keyMismatchCount.reset();
+		cutoffCount.reset();
+		storeCount.reset();
+		rejectedStoreCount.reset();
+		overwriteCount.reset();
+	}
+
+	/** Gets the number of times the table was probed.
+	 * @return a positive long
+	 */
+	public long getProbeCount() {
+		return probeCount.sum();
+	}
+
+	/** Gets the number of probes that found the searched key.
+	 * @return a positive long
+	 */
+	public long getHitCount() {
+		return hitCount.sum();
+	}
+
+	/** Gets the number of probes that did not find the searched key while the place where it should be stored was occupied by other keys.
+	 * @return a positive long
+	 */
+	public long getKeyMismatchCount() {
+		return keyMismatchCount.sum();
+	}
+
+	/** Gets the number of times an entry of the table allowed the search to immediately return a value.
+	 * @return a positive long
+	 */
+	public long getCutoffCount() {
+		return cutoffCount.sum();
+	}
+
+	/** Gets the number of entries written in the table.
+	 * @return a positive long
+	 */
+	public long getStoreCount() {
+		return storeCount.sum();
+	}
+
+	/** Gets the number of stores rejected by the replacement validator (typically, the {@link TranspositionTablePolicy}).
+	 * @return a positive long
+	 */
+	public long getRejectedStoreCount() {
+		return rejectedStoreCount.sum();
+	}
+
+	/** Gets the number of stores that replaced a valid entry of another key.
+	 * @return a positive long
+	 */
+	public long getOverwriteCount() {
+		return overwriteCount.sum();
+	}
+
+	/** Records a probe.
+	 * @param hit true if the key was found
+	 * @param keyMismatch true if the key was not found and its place was occupied by other keys
+	 */
+	public void probeDone(boolean hit, boolean keyMismatch) {
+		if (enabled) {
+			probeCount.increment();
+			if (hit) {
+				hitCount.increment();
+			} else if (keyMismatch) {
+				keyMismatchCount.increment();
+			}
+		}
+	}
+
+	/** Records a store attempt.
+	 * @param written true if the entry was written, false if it was rejected
+	 * @param overwrite true if the written entry replaced a valid entry of another key
+	 */
+	public void storeDone(boolean written, boolean overwrite) {
+		if (enabled) {
+			if (written) {
+				storeCount.increment();
+				if (overwrite) {
+					overwriteCount.increment();
+				}
+			} else {
+				rejectedStoreCount.increment();
+			}
+		}
+	}
+
+	/** Records a search cutoff produced by a table entry. */
+	public void cutoffDone() {
+		if (enabled) {
+			cutoffCount.increment();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return enabled ? "TranspositionTableStatistics [probeCount=" + probeCount + ", hitCount=" + hitCount + ", keyMismatchCount=" + keyMismatchCount
+				+ ", cutoffCount=" + cutoffCount + ", storeCount=" + storeCount + ", rejectedStoreCount=" + rejectedStoreCount
+				+ ", overwriteCount=" + overwriteCount + "]" :
+			"TranspositionTableStatistics are disabled";
+	}
+}
@@ -0,0 +1,95 @@
+package com.fathzer.games.ai.transposition;
+
+import java.util.function.Predicate;
+
+import com.fathzer.games.MoveGenerator;
+
+/**
+ * A transposition table with two entries per index: a <i>depth-preferred</i> entry and an <i>always-replace</i> entry.
+ * <br>A depth-preferred only table (like {@link OneLongEntryTranspositionTable} with {@link BasicPolicy}) fills, during long searches,
+ * with deep entries while recent shallow results, that would produce cutoffs in the current search, are lost.
+ * <br>This table solves the problem this way:<ul>
+ * <li>The new data is first proposed to the depth-preferred entry, using the validator passed to {@link #store(long, EntryType, int, int, Object, Predicate)}
+ * (or {@link #store(long, EntryType, int, int, Object, ReplacementValidator)}). With the default policy, it is replaced if the new data is deeper, exact or if the entry is stale.</li>
+ * <li>If the validator rejects the new data, it is stored in the always-replace entry, whatever it contains, except if the depth-preferred entry
+ * has the same key (the depth-preferred entry is then kept and the new data is discarded).</li>
+ * </ul>
+ * A key is never stored in both entries: When new data is stored in the depth-preferred entry, the always-replace entry is removed if it has the same key.
+ * <br>When the table is probed, the depth-preferred entry is checked first.
+ * <br>The store methods return false only if the new data was discarded.
+ * When {@link #getStatistics() statistics} are enabled, a new data stored in the always-replace entry is counted as a rejected store followed by a store.
+ * @param <M> The type of moves
+ * @param <B> The type of move generator
+ */
+public abstract class TwoTierTranspositionTable<M, B extends MoveGenerator<M>> extends OneLongEntryTranspositionTable<M, B> {
+	private static final int TIER_LENGTH = 2 * SLOTS;
+
+	private final long indexCount;
+	private final ReplacementValidator<M> alwaysReplace = (entry, key, depth, type) -> true;
+
+	/** Constructor.
+	 * @param size The table size
+	 * @param unit The unit used to pass the size
+	 * @throws IllegalArgumentException if size is too small to contain at least two entries.
+	 */
+	protected TwoTierTranspositionTable(int size, SizeUnit unit) {
+		this(size, unit, false);
+	}
+
+	/** Constructor.
+	 * @param size The table size
+	 * @param unit The unit used to pass the size
+	 * @param lockFree true to build a lock-free table, false to build a table that uses a read/write lock.
+	 * @throws IllegalArgumentException if size is too small to contain at least two entries.
+	 */
+	protected TwoTierTranspositionTable(int size, SizeUnit unit, boolean lockFree) {
+		super(size, unit, lockFree);
+		this.indexCount = super.getLongSize() / 2;
+		if (indexCount==0) {
+			throw new IllegalArgumentException("Table is too small");
+		}
+	}
+
+	private long getTiersIndex(long key) {
+		return Math.abs(key % indexCount) * TIER_LENGTH;
+	}
+
+	@Override
+	long probe(long key) {
+		final long depthPreferred = getTiersIndex(key);
+		long value = read(depthPreferred, key);
+		if (value==0) {
+			value = read(depthPreferred + SLOTS, key);
+		}
+		if (getStatistics().isEnabled()) {
+			getStatistics().probeDone(value!=0, value==0 && (getValue(depthPreferred)!=0 || getValue(depthPreferred + SLOTS)!=0));
+		}
+		return value;
+	}
+
+	@Override
+	boolean store(long key, long newValue, ReplacementValidator<M> validator) {
+		final long depthPreferred = getTiersIndex(key);
+		final long alwaysReplaced = depthPreferred + SLOTS;
+		if (write(depthPreferred, key, newValue, validator)) {
+			// Never keep two entries for the same key
+			erase(alwaysReplaced, key);
+			return true;
+		}
+		if (read(depthPreferred, key)!=0) {
+			// The depth-preferred entry already contains this key and is better than the new data
+			return false;
+		}
+		return write(alwaysReplaced, key, newValue, alwaysReplace);
+	}
+
+	@Override
+	int getEntriesPerBucket() {
+		return 2;
+	}
+
+	@Override
+	public long getLongSize() {
+		return indexCount * 2;
+	}
+}
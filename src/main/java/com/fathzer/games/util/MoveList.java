@@ -2,6 +2,7 @@ package com.fathzer.games.util;
 
 import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
@@ -67,6 +68,13 @@ public class MoveList<E> extends AbstractList<E> {
     	setComparator(comparator);
     }
     
+    /** Gets the comparator.
+     * @return The comparator used to select and sort the moves (never null)
+     */
+    public SelectiveComparator<E> getComparator() {
+    	return comparator;
+    }
+    
     /** Sets the comparator.
      * @param comparator The new evaluator. Null to have no sort
      */
@@ -114,6 +122,35 @@ public class MoveList<E> extends AbstractList<E> {
 		toBeSorted.sort(comparator);
 	}
 	
+	/** Sorts the elements excluded from the sort (see {@link SelectiveComparator#test(Object)}) with another comparator.
+	 * <br>The sorted elements remain before all the excluded ones. This method allows to sort <i>quiet</i> moves
+	 * with a dynamic comparator, like the <a href="https://www.chessprogramming.org/History_Heuristic">history heuristic</a>.
+	 * <br>The sort is stable, equivalent excluded elements keep their relative order.
+	 * @param comparator The comparator used to sort the excluded elements
+	 */
+	public void sortExcluded(Comparator<? super E> comparator) {
+		list.sort(comparator);
+	}
+	
+	/** Moves an element excluded from the sort (see {@link SelectiveComparator#test(Object)}) before all the other excluded elements.
+	 * <br>The sorted elements remain before all the excluded ones. This method allows to try first, among <i>quiet</i> moves, moves that are
+	 * <i>a priori</i> better, like <a href="https://www.chessprogramming.org/Killer_Heuristic">killer moves</a>.
+	 * <br>Promoting several elements places the last promoted one first.
+	 * @param e The element to promote
+	 * @return true if the element was found among excluded elements, false if it is not in this list or is sorted by the comparator
+	 */
+	public boolean promote(E e) {
+		final int index = list.indexOf(e);
+		if (index<0) {
+			return false;
+		}
+		if (index>0) {
+			list.remove(index);
+			list.add(0, e);
+		}
+		return true;
+	}
+	
 	@Override
 	public Iterator<E> iterator() {
 		return toBeSorted.isEmpty() ? list.iterator() : new DualListIterator<>(toBeSorted, list);
@@ -22,12 +22,27 @@ import com.fathzer.games.util.UncheckedException;
  */
 class ContextualizedExecutor<T extends Forkable<T>> implements AutoCloseable {
 	
-	private static class ContextThread<T> extends Thread {
+	private static class ContextThread<T extends Forkable<T>> extends Thread {
 		T context;
+		/** The context the thread's context is synchronized with, null if it is not synchronized. */
+		T source;
 
 		public ContextThread(Runnable target) {
 			super(target);
 		}
+		
+		/** Synchronizes the thread's context with a context.
+		 * <br>If the thread's context is already synchronized with <i>master</i>, nothing is done. Otherwise,
+		 * the state of <i>master</i> is copied to the thread's context, or if the copy is not supported, the thread's context is replaced by a fork of <i>master</i>.
+		 */
+		void synchronize(T master) {
+			if (source!=master) {
+				if (context==null || !context.copyFrom(master)) {
+					context = master.fork();
+				}
+				source = master;
+			}
+		}
 	}
 
 	private final AtomicBoolean running;
@@ -51,16 +66,22 @@ class ContextualizedExecutor<T extends Forkable<T>> implements AutoCloseable {
 		this.threads = new LinkedList<>();
 		this.exec = Executors.newFixedThreadPool(parallelism, r -> {
 			final ContextThread<T> contextThread = new ContextThread<>(r);
+			// The executor can be long-lived (see WorkerPool), its threads should not prevent the JVM from exiting
+			contextThread.setDaemon(true);
 			threads.add(contextThread);
-			contextThread.context = masterContext.fork();
+			contextThread.synchronize(masterContext);
 			return contextThread;
 		});
 	}
 	
 	/** Executes some tasks with some thread context.
+	 * <br>The contexts of the worker threads are synchronized with <i>context</i> before executing the tasks. When it is the context passed
+	 * to the previous call, nothing is done (the tasks are expected to leave the thread's context as they found it).
+	 * Otherwise, its state is copied in the existing thread contexts (see {@link Forkable#copyFrom(Object)}), or if it's not supported, it is forked.
+	 * <br>If a task fails, the context of its thread is considered as not synchronized and it will be synchronized again at next call.
 	 * @param <V> The class of the task's results.
 	 * @param tasks The list of tasks to execute
-	 * @param context A base context that will be copied (using <i>copyFunction</i>) to create in each worker thread.
+	 * @param context A base context that will be synchronized with each worker thread's context.
 	 * @return The futures that corresponds to the executed tasks.
 	 * @throws InterruptedException if the executor is shutdown during the execution of tasks.
 	 * @see #getContext()
@@ -69,8 +90,8 @@ class ContextualizedExecutor<T extends Forkable<T>> implements AutoCloseable {
 		if (running.compareAndSet(false, true)) {
 			try {
 				masterContext = context;
-				threads.forEach(t -> t.context = context.fork());
-				return exec.invokeAll(tasks);
+				threads.forEach(t -> t.synchronize(context));
+				return exec.invokeAll(tasks.stream().map(this::toSafeTask).toList());
 			} finally {
 				running.set(false);
 			}
@@ -79,6 +100,22 @@ class ContextualizedExecutor<T extends Forkable<T>> implements AutoCloseable {
 		}
 	}
 	
+	/** Wraps a task in order to mark the thread's context as not synchronized if the task fails (its context may be in an inconsistent state). */
+	private <V> Callable<V> toSafeTask(Callable<V> task) {
+		return () -> {
+			boolean done = false;
+			try {
+				final V result = task.call();
+				done = true;
+				return result;
+			} finally {
+				if (!done && Thread.currentThread() instanceof ContextThread<?> thread) {
+					thread.source = null;
+				}
+			}
+		};
+	}
+	
 	/** Check if any execution exception occurred and convert it to a RuntimeException.
 	 * @param <V>
 	 * @param futures The futures to test
@@ -105,6 +142,13 @@ class ContextualizedExecutor<T extends Forkable<T>> implements AutoCloseable {
 		return (currentThread instanceof ContextThread) ? ((ContextThread<T>)currentThread).context : null;
 	}
 
+	/** Tests whether this executor is closed.
+	 * @return true if {@link #close()} was called
+	 */
+	public boolean isClosed() {
+		return exec.isShutdown();
+	}
+
 	@Override
 	public void close() {
 		exec.shutdown();
@@ -16,6 +16,8 @@ public interface ExecutionContext<T> extends AutoCloseable {
 	T getContext();
 	
 	/** Executes some tasks with some thread context.
+	 * <br>When the tasks are executed by other threads, the contexts of these threads are not synchronized again between two executions,
+	 * so the tasks should leave their thread's context as they found it, and the context should not be modified between two executions.
 	 * @param tasks The list of tasks to execute
 	 * @see #getContext()
 	 */
@@ -28,7 +30,7 @@ public interface ExecutionContext<T> extends AutoCloseable {
 	
 	/** Gets a new execution context.
 	 * @param parallelism The number of threads to use. If 1, a single thread will be used. Otherwise, a thread pool of the given size will be used.
-	 * @param context The context to use. It will be forked to each thread.
+	 * @param context The context to use. It will be forked to each thread (see {@link Forkable#copyFrom(Object)} to prevent forking it at each execution).
 	 * @param <T> The context's class
 	 * @return An execution context.
 	 * @throws IllegalArgumentException if the parallelism is less than 1 or the context is null.
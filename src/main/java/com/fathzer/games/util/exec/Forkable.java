@@ -16,4 +16,16 @@ public interface Forkable<T> {
 	 * </ul>
 	 */
 	T fork();
+	
+	/** Copies the state of another instance into this one.
+	 * <br>It allows to reuse an instance previously returned by {@link #fork()} instead of allocating a new fork, typically when a worker thread
+	 * has to be synchronized with a new position.
+	 * After a successful copy, this instance should be equivalent to a fork of <i>source</i>.
+	 * <br>The default implementation does nothing and returns false.
+	 * @param source The instance to copy
+	 * @return true if the state of source was copied, false if this instance does not support copy (in such a case, the caller should fork <i>source</i>).
+	 */
+	default boolean copyFrom(T source) {
+		return false;
+	}
 }
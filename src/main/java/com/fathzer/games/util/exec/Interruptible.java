@@ -11,4 +11,12 @@ public interface Interruptible {
      * @return <code>true</code> if the search was interrupted, <code>false</code> otherwise
      */
 	boolean isInterrupted();
+
+	/** Clears the interrupted state, in order to reuse this instance for another search.
+	 * <br>The default implementation does nothing and returns false.
+	 * @return <code>true</code> if the interrupted state was cleared, <code>false</code> if this instance can't be reused after an interruption
+	 */
+	default boolean clearInterrupted() {
+		return false;
+	}
 }
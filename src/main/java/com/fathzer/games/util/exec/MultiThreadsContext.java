@@ -8,10 +8,21 @@ import java.util.concurrent.Future;
 class MultiThreadsContext<T extends Forkable<T>> implements ExecutionContext<T> {
 	protected final ContextualizedExecutor<T> exec;
 	private final T globalContext;
+	private final boolean ownExecutor;
 	
 	MultiThreadsContext(T context, ContextualizedExecutor<T> exec) {
+		this(context, exec, true);
+	}
+
+	/** Constructor.
+	 * @param context The global context
+	 * @param exec The executor that executes the tasks
+	 * @param ownExecutor true if the executor should be closed when this is closed, false if it is shared (see {@link WorkerPool}).
+	 */
+	MultiThreadsContext(T context, ContextualizedExecutor<T> exec, boolean ownExecutor) {
 		this.exec = exec;
 		this.globalContext = context;
+		this.ownExecutor = ownExecutor;
 	}
 
 	@Override
@@ -43,6 +54,8 @@ class MultiThreadsContext<T extends Forkable<T>> implements ExecutionContext<T>
 
 	@Override
 	public void close() {
-		exec.close();
+		if (ownExecutor) {
+			exec.close();
+		}
 	}
 }
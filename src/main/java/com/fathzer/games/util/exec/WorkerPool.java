@@ -0,0 +1,67 @@
+package com.fathzer.games.util.exec;
+
+/** A long-lived pool of threads that can execute the tasks of many {@link ExecutionContext}s.
+ * <br>{@link ExecutionContext#get(int, Forkable)} creates new threads each time it is called and they are stopped when the context is closed.
+ * When a lot of short searches are performed (for instance in a bullet game or when analyzing a lot of positions), the cost of creating threads becomes significant.
+ * <br>This class creates its threads once and the execution contexts it returns share them. Closing these contexts does not stop the threads,
+ * they are stopped when the pool is closed.
+ * <br>The threads of the pool are daemon threads, but the pool should be closed when it is no more used.
+ * <br>The execution contexts returned by this pool should not be used at the same time (a context throws an {@link IllegalStateException} if
+ * it executes tasks while another one is executing tasks).
+ * @param <T> The context's class
+ */
+public class WorkerPool<T extends Forkable<T>> implements AutoCloseable {
+	private final ContextualizedExecutor<T> exec;
+	private final int parallelism;
+
+	/** Constructor.
+	 * @param parallelism The number of threads of the pool
+	 * @throws IllegalArgumentException if parallelism is less than 1
+	 */
+	public WorkerPool(int parallelism) {
+		if (parallelism<1) {
+			throw new IllegalArgumentException();
+		}
+		this.parallelism = parallelism;
+		this.exec = new ContextualizedExecutor<>(parallelism);
+	}
+
+	/** Gets the number of threads of this pool.
+	 * @return a positive int
+	 */
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	/** Gets an execution context that uses the threads of this pool.
+	 * @param context The context to use. The existing contexts of the pool's threads are synchronized with it using {@link Forkable#copyFrom(Object)},
+	 * they are replaced by forks of <i>context</i> only if the copy is not supported.
+	 * @return An execution context. Closing it does not close this pool.
+	 * @throws IllegalArgumentException if the context is null.
+	 * @throws IllegalStateException if this pool is closed.
+	 */
+	public ExecutionContext<T> getExecutionContext(T context) {
+		if (context==null) {
+			throw new IllegalArgumentException();
+		}
+		if (isClosed()) {
+			throw new IllegalStateException("Pool is closed");
+		}
+		return new MultiThreadsContext<>(context, exec, false);
+	}
+
+	/** Tests whether this pool is closed.
+	 * @return true if {@link #close()} was called
+	 */
+	public boolean isClosed() {
+		return exec.isClosed();
+	}
+
+	/** Stops the threads of this pool.
+	 * <br>Tasks currently executed are completed, but the execution contexts returned by this pool can no more be used.
+	 */
+	@Override
+	public void close() {
+		exec.close();
+	}
+}
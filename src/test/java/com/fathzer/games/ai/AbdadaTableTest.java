@@ -0,0 +1,39 @@
+package com.fathzer.games.ai;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class AbdadaTableTest {
+
+	@Test
+	void test() {
+		assertThrows(IllegalArgumentException.class, () -> new AbdadaTable(0));
+		assertThrows(IllegalArgumentException.class, () -> new AbdadaTable(12));
+		assertEquals(AbdadaTable.DEFAULT_SIZE, new AbdadaTable().getSize());
+
+		final AbdadaTable table = new AbdadaTable(4);
+		assertFalse(table.isSearched(1));
+		table.enter(1);
+		assertTrue(table.isSearched(1));
+		assertFalse(table.isSearched(2));
+		table.enter(2);
+		assertTrue(table.isSearched(2));
+		// Key 5 has the same index as key 1
+		table.enter(5);
+		assertTrue(table.isSearched(5));
+		assertFalse(table.isSearched(1));
+		// Leaving a replaced position does not remove the new one
+		table.leave(1);
+		assertTrue(table.isSearched(5));
+		table.leave(5);
+		assertFalse(table.isSearched(5));
+
+		// Key 0 is never searched
+		table.enter(0);
+		assertFalse(table.isSearched(0));
+
+		table.clear();
+		assertFalse(table.isSearched(2));
+	}
+}
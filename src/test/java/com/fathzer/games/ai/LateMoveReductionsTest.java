@@ -0,0 +1,37 @@
+package com.fathzer.games.ai;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class LateMoveReductionsTest {
+
+	@Test
+	void test() {
+		assertThrows(IllegalArgumentException.class, () -> new LateMoveReductions(-1, 3, (d,m) -> 1));
+		assertThrows(IllegalArgumentException.class, () -> new LateMoveReductions(3, 1, (d,m) -> 1));
+
+		final LateMoveReductions lmr = new LateMoveReductions(2, 3, (d,m) -> d+m-10);
+		assertEquals(2, lmr.getFullDepthMoves());
+		assertEquals(3, lmr.getMinDepth());
+		// First moves and shallow nodes are not reduced
+		assertEquals(0, lmr.getReduction(20, 1));
+		assertEquals(0, lmr.getReduction(2, 20));
+		// Negative reductions are ignored
+		assertEquals(0, lmr.getReduction(3, 2));
+		assertEquals(5, lmr.getReduction(10, 5));
+		// Reduction never reaches depth
+		assertEquals(4, lmr.getReduction(5, 20));
+		// Large depth and move indexes are supported
+		assertEquals(63+63-10, lmr.getReduction(1000, 1000));
+	}
+
+	@Test
+	void defaultTest() {
+		final LateMoveReductions lmr = new LateMoveReductions();
+		assertEquals(0, lmr.getReduction(2, 10));
+		assertEquals(0, lmr.getReduction(10, 2));
+		assertEquals(1, lmr.getReduction(3, 3));
+		assertTrue(lmr.getReduction(10, 10)>lmr.getReduction(3, 3));
+	}
+}
@@ -0,0 +1,546 @@
+package com.fathzer.games.ai;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import com.fathzer.games.HashProvider;
+import com.fathzer.games.MoveGenerator;
+import com.fathzer.games.Status;
+import com.fathzer.games.ai.evaluation.EvaluatedMove;
+import com.fathzer.games.ai.evaluation.Evaluator;
+import com.fathzer.games.ai.evaluation.QuiesceEvaluator;
+import com.fathzer.games.ai.evaluation.StaticEvaluator;
+import com.fathzer.games.ai.moveordering.HistoryHeuristic;
+import com.fathzer.games.util.MoveList;
+import com.fathzer.games.util.SelectiveComparator;
+import com.fathzer.games.util.exec.ExecutionContext;
+
+class NegamaxTest {
+	/** A game with a pseudo random tree. */
+	private static class RandomTreeGame implements MoveGenerator<Integer>, HashProvider {
+		private static final SelectiveComparator<Integer> COMPARATOR = new SelectiveComparator<>() {
+			@Override
+			public int compare(Integer o1, Integer o2) {
+				return 0;
+			}
+
+			@Override
+			public boolean test(Integer move) {
+				// Move 0 is the only "tactical" move
+				return move==0;
+			}
+		};
+		
+		private final LinkedList<Long> keys = new LinkedList<>();
+		
+		private RandomTreeGame(long key) {
+			keys.add(key);
+		}
+		
+		private static long mix(long x) {
+			x = (x ^ (x >>> 30)) * 0xbf58476d1ce4e5b9L;
+			x = (x ^ (x >>> 27)) * 0x94d049bb133111ebL;
+			return x ^ (x >>> 31);
+		}
+
+		private long key() {
+			return keys.getLast();
+		}
+
+		@Override
+		public long getHashKey() {
+			return key();
+		}
+
+		@Override
+		public boolean isWhiteToMove() {
+			return keys.size()%2==1;
+		}
+
+		@Override
+		public boolean makeMove(Integer move, MoveConfidence confidence) {
+			if ((mix(key()+move) & 7)==0) {
+				// Some moves are illegal
+				return false;
+			}
+			keys.add(mix(key()*31+move+1));
+			return true;
+		}
+
+		@Override
+		public void unmakeMove() {
+			keys.removeLast();
+		}
+
+		@Override
+		public List<Integer> getMoves() {
+			final MoveList<Integer> moves = new MoveList<>();
+			moves.setComparator(COMPARATOR);
+			if ((key() & 31)!=0) {
+				final int count = 2 + (int)((key()>>>20) & 3);
+				for (int i = 0; i < count; i++) {
+					moves.add(i);
+				}
+			}
+			return moves;
+		}
+
+		@Override
+		public Status getEndGameStatus() {
+			return isWhiteToMove() ? Status.BLACK_WON : Status.WHITE_WON;
+		}
+
+		@Override
+		public RandomTreeGame fork() {
+			final RandomTreeGame result = new RandomTreeGame(0);
+			result.keys.clear();
+			result.keys.addAll(keys);
+			return result;
+		}
+
+		@Override
+		public boolean copyFrom(MoveGenerator<Integer> source) {
+			keys.clear();
+			keys.addAll(((RandomTreeGame)source).keys);
+			return true;
+		}
+	}
+	
+	/** A game whose tree is explicitly described, positions are identified by the moves played from the root.
+	 * <br>Positions without moves are lost by the player to move, except those reached by a move ending with '=' which are drawn.
+	 * <br>Moves in upper case are sorted first by the move comparator.
+	 * <br>Null moves are supported, the position reached by a null move is the current one followed by '-'.
+	 */
+	private static class TreeGame implements MoveGenerator<String> {
+		private static final SelectiveComparator<String> COMPARATOR = new SelectiveComparator<>() {
+			@Override
+			public int compare(String o1, String o2) {
+				return 0;
+			}
+
+			@Override
+			public boolean test(String move) {
+				return Character.isUpperCase(move.charAt(0));
+			}
+		};
+		
+		private final Map<String, List<String>> tree;
+		private final LinkedList<String> path = new LinkedList<>(List.of(""));
+		
+		private TreeGame(Map<String, List<String>> tree) {
+			this.tree = tree;
+		}
+
+		@Override
+		public boolean isWhiteToMove() {
+			return path.size()%2==1;
+		}
+
+		@Override
+		public boolean makeMove(String move, MoveConfidence confidence) {
+			path.add(path.getLast()+move);
+			return true;
+		}
+
+		@Override
+		public void unmakeMove() {
+			path.removeLast();
+		}
+
+		@Override
+		public boolean isNullMoveSupported() {
+			return true;
+		}
+
+		@Override
+		public boolean makeNullMove() {
+			path.add(path.getLast()+"-");
+			return true;
+		}
+
+		@Override
+		public void unmakeNullMove() {
+			path.removeLast();
+		}
+
+		@Override
+		public List<String> getMoves() {
+			final MoveList<String> moves = new MoveList<>();
+			moves.setComparator(COMPARATOR);
+			moves.addAll(tree.getOrDefault(path.getLast(), List.of()));
+			return moves;
+		}
+
+		@Override
+		public Status getEndGameStatus() {
+			if (path.getLast().endsWith("=")) {
+				return Status.DRAW;
+			}
+			return isWhiteToMove() ? Status.BLACK_WON : Status.WHITE_WON;
+		}
+
+		@Override
+		public TreeGame fork() {
+			final TreeGame result = new TreeGame(tree);
+			result.path.clear();
+			result.path.addAll(path);
+			return result;
+		}
+	}
+	
+	/** A {@link TreeGame} evaluator with constant pruning margins (Integer.MAX_VALUE disables a pruning). */
+	private static class MarginEvaluator implements StaticEvaluator<String, TreeGame> {
+		private final Map<String, Integer> evaluations;
+		private final int futilityMargin;
+		private final int reverseFutilityMargin;
+		private final int razoringMargin;
+
+		private MarginEvaluator(Map<String, Integer> evaluations, int futilityMargin, int reverseFutilityMargin, int razoringMargin) {
+			this.evaluations = evaluations;
+			this.futilityMargin = futilityMargin;
+			this.reverseFutilityMargin = reverseFutilityMargin;
+			this.razoringMargin = razoringMargin;
+		}
+
+		@Override
+		public int evaluate(TreeGame game) {
+			return evaluations.getOrDefault(game.path.getLast(), 0);
+		}
+
+		@Override
+		public int getFutilityMargin(TreeGame board, int depth) {
+			return futilityMargin;
+		}
+
+		@Override
+		public int getReverseFutilityMargin(TreeGame board, int depth) {
+			return reverseFutilityMargin;
+		}
+
+		@Override
+		public int getRazoringMargin(TreeGame board, int depth) {
+			return razoringMargin;
+		}
+	}
+	
+	/** Searches a {@link TreeGame} whose evaluations are given from the point of view of the player to move (positions not in <i>evaluations</i> are evaluated to 0).
+	 * @return the scores of the root moves
+	 */
+	private static Map<String, Integer> search(Map<String, List<String>> tree, Map<String, Integer> evaluations, int depth, Consumer<Negamax<String, TreeGame>> config) {
+		final StaticEvaluator<String, TreeGame> evaluator = game -> evaluations.getOrDefault(game.path.getLast(), 0);
+		return search(tree, evaluator, depth, config);
+	}
+
+	private static Map<String, Integer> search(Map<String, List<String>> tree, Evaluator<String, TreeGame> evaluator, int depth, Consumer<Negamax<String, TreeGame>> config) {
+		final SearchContext<String, TreeGame> context = SearchContext.get(new TreeGame(tree), () -> evaluator);
+		try (ExecutionContext<SearchContext<String, TreeGame>> exec = ExecutionContext.get(1, context)) {
+			final Negamax<String, TreeGame> ai = new Negamax<>(exec);
+			config.accept(ai);
+			final List<EvaluatedMove<String>> moves = ai.getBestMoves(new DepthFirstSearchParameters(depth, Integer.MAX_VALUE, 0)).getList();
+			return moves.stream().collect(Collectors.toMap(EvaluatedMove::getMove, EvaluatedMove::getScore));
+		}
+	}
+	
+	private static Map<Integer, Integer> search(long seed, int depth, Consumer<Negamax<Integer, RandomTreeGame>> config) {
+		final StaticEvaluator<Integer, RandomTreeGame> evaluator = game -> (int)(RandomTreeGame.mix(game.key()) % 1000);
+		final SearchContext<Integer, RandomTreeGame> context = SearchContext.get(new RandomTreeGame(seed), () -> evaluator);
+		try (ExecutionContext<SearchContext<Integer, RandomTreeGame>> exec = ExecutionContext.get(1, context)) {
+			final Negamax<Integer, RandomTreeGame> ai = new Negamax<>(exec);
+			config.accept(ai);
+			final List<EvaluatedMove<Integer>> moves = ai.getBestMoves(new DepthFirstSearchParameters(depth, Integer.MAX_VALUE, 0)).getList();
+			return moves.stream().collect(Collectors.toMap(EvaluatedMove::getMove, EvaluatedMove::getScore));
+		}
+	}
+	
+	private static void assertSameResult(Consumer<Negamax<Integer, RandomTreeGame>> config) {
+		for (long seed = 1; seed <= 20; seed++) {
+			final Map<Integer, Integer> expected = search(seed, 6, ai -> {});
+			assertFalse(expected.isEmpty());
+			assertEquals(expected, search(seed, 6, config), "Failed with seed "+seed);
+		}
+	}
+
+	@Test
+	void nullMovePruningTest() {
+		// With PVS, y is searched with a null window. At "ay", after a null move, the opponent has a bad position, so the node is (wrongly) pruned.
+		final Map<String, List<String>> tree = Map.of("", List.of("a"), "a", List.of("x", "y"),
+				"ax", List.of("p"), "axp", List.of("q"), "ay", List.of("m"), "aym", List.of("r"));
+		final Map<String, Integer> evaluations = Map.of("axpq", -10, "aymr", -50, "ay-", -100);
+		assertEquals(Map.of("a", -50), search(tree, evaluations, 4, ai -> ai.setPrincipalVariationSearch(true)));
+		assertEquals(Map.of("a", -10), search(tree, evaluations, 4, ai -> {
+			ai.setPrincipalVariationSearch(true);
+			ai.setNullMoveReduction(1);
+		}));
+		// Without PVS, "ay" is searched with a non null window, no null move is tried
+		assertEquals(Map.of("a", -50), search(tree, evaluations, 4, ai -> ai.setNullMoveReduction(1)));
+	}
+
+	@Test
+	void lateMoveReductionsTest() {
+		// At "a", the opponent's moves y and w are searched with a reduced depth.
+		// y looks good for the opponent at depth 0 and is re-searched at full depth, w looks bad and is not re-searched.
+		final Map<String, List<String>> tree = Map.of("", List.of("a"), "a", List.of("x", "y", "w"),
+				"ax", List.of("p"), "ay", List.of("q"), "aw", List.of("t"));
+		final Map<String, Integer> evaluations = Map.of("axp", 0, "ay", -100, "ayq", 50, "aw", 100, "awt", 200);
+		assertEquals(Map.of("a", -200), search(tree, evaluations, 3, ai -> {}));
+		// With late move reductions, w is wrongly pruned.
+		// The reduced search of y gives the opponent 100, it is re-searched at full depth (without re-search, the score would be -100)
+		final LateMoveReductions lmr = new LateMoveReductions(1, 2, (depth, moveIndex) -> 1);
+		assertEquals(Map.of("a", -50), search(tree, evaluations, 3, ai -> ai.setLateMoveReductions(lmr)));
+
+		// Sorted moves are never reduced
+		final Map<String, List<String>> sortedTree = Map.of("", List.of("a"), "a", List.of("x", "Y", "W"),
+				"ax", List.of("p"), "aY", List.of("q"), "aW", List.of("t"));
+		final Map<String, Integer> sortedEvaluations = Map.of("axp", 0, "aY", -100, "aYq", 50, "aW", 100, "aWt", 200);
+		assertEquals(Map.of("a", -200), search(sortedTree, sortedEvaluations, 3, ai -> ai.setLateMoveReductions(lmr)));
+	}
+
+	/** Gets a tree where the opponent's best reply to "a" is "x" or "y".
+	 * <br>With PVS, once x is searched, y is searched with a null window. If it fails high, it is re-searched with a full window.
+	 */
+	private static Map<String, List<String>> getPruningTree(String... aymMoves) {
+		return Map.of("", List.of("a"), "a", List.of("x", "y"), "ax", List.of("p"), "axp", List.of("q"), "ay", List.of("m"), "aym", List.of(aymMoves));
+	}
+	
+	/** Gets a configuration that enables futility pruning (and its variants) at depth 2, with or without PVS. */
+	private static Consumer<Negamax<String, TreeGame>> withFutilityPruning(boolean pvs) {
+		return ai -> {
+			ai.setPrincipalVariationSearch(pvs);
+			ai.setFutilityPruningDepth(2);
+		};
+	}
+
+	@Test
+	void futilityPruningTest() {
+		assertThrows(IllegalArgumentException.class, () -> search(getPruningTree(), Map.of(), 2, ai -> ai.setFutilityPruningDepth(-1)));
+		// x gives 20 to the opponent, at "aym", the null window is (20, 21) and the static evaluation is 0.
+		final Map<String, List<String>> tree = getPruningTree("r", "s");
+		final Map<String, Integer> evaluations = Map.of("axpq", -20, "aymr", -30, "ayms", -5);
+		assertEquals(Map.of("a", -30), search(tree, evaluations, 4, ai -> ai.setPrincipalVariationSearch(true)));
+		// 0+10 is below alpha. The first move is searched anyway (otherwise the opponent would be considered as mated) and it fails high
+		assertEquals(Map.of("a", -30), search(tree, new MarginEvaluator(evaluations, 10, Integer.MAX_VALUE, Integer.MAX_VALUE), 4, withFutilityPruning(true)));
+
+		// s is wrongly pruned
+		final Map<String, Integer> sIsBest = Map.of("axpq", -20, "aymr", -15, "ayms", -50);
+		assertEquals(Map.of("a", -50), search(tree, sIsBest, 4, ai -> ai.setPrincipalVariationSearch(true)));
+		assertEquals(Map.of("a", -20), search(tree, new MarginEvaluator(sIsBest, 10, Integer.MAX_VALUE, Integer.MAX_VALUE), 4, withFutilityPruning(true)));
+		// With a greater margin, s is not pruned
+		assertEquals(Map.of("a", -50), search(tree, new MarginEvaluator(sIsBest, 40, Integer.MAX_VALUE, Integer.MAX_VALUE), 4, withFutilityPruning(true)));
+		// Nodes searched with a full window are not pruned
+		assertEquals(Map.of("a", -50), search(tree, new MarginEvaluator(sIsBest, 10, Integer.MAX_VALUE, Integer.MAX_VALUE), 4, withFutilityPruning(false)));
+		// Sorted moves are never pruned
+		final Map<String, List<String>> sortedTree = getPruningTree("r", "S");
+		final Map<String, Integer> sortedEvaluations = Map.of("axpq", -20, "aymr", -15, "aymS", -50);
+		assertEquals(Map.of("a", -50), search(sortedTree, new MarginEvaluator(sortedEvaluations, 10, Integer.MAX_VALUE, Integer.MAX_VALUE), 4, withFutilityPruning(true)));
+		// Margins are ignored if futility pruning is disabled
+		assertEquals(Map.of("a", -50), search(tree, new MarginEvaluator(sIsBest, 10, Integer.MAX_VALUE, Integer.MAX_VALUE), 4, ai -> ai.setPrincipalVariationSearch(true)));
+	}
+
+	@Test
+	void futilityPruningEndGameTest() {
+		// The static evaluation of the positions reached by y is very low, the moves would be pruned, but there's no move
+		// x is bad for the opponent, so, if y is a draw, the opponent prefers y.
+		final Map<String, Integer> evaluations = Map.of("axpq", 20, "aym", -100, "aym=", -100);
+		final MarginEvaluator evaluator = new MarginEvaluator(evaluations, 10, Integer.MAX_VALUE, Integer.MAX_VALUE);
+		// The opponent is mated at aym
+		final Map<String, List<String>> mateTree = getPruningTree();
+		assertEquals(Map.of("a", 20), search(mateTree, evaluations, 4, ai -> ai.setPrincipalVariationSearch(true)));
+		assertEquals(Map.of("a", 20), search(mateTree, evaluator, 4, withFutilityPruning(true)));
+		// The position after aym= is a draw
+		final Map<String, List<String>> drawTree = Map.of("", List.of("a"), "a", List.of("x", "y"), "ax", List.of("p"), "axp", List.of("q"), "ay", List.of("m="));
+		assertEquals(Map.of("a", 0), search(drawTree, evaluations, 4, ai -> ai.setPrincipalVariationSearch(true)));
+		assertEquals(Map.of("a", 0), search(drawTree, evaluator, 4, withFutilityPruning(true)));
+	}
+
+	@Test
+	void reverseFutilityPruningTest() {
+		final Map<String, List<String>> tree = getPruningTree("r", "s");
+		// At "ay", the null window is (-21, -20) and the static evaluation is 0 for the player to move
+		final Map<String, Integer> evaluations = Map.of("axpq", -20, "aymr", -30, "ayms", -5);
+		assertEquals(Map.of("a", -30), search(tree, evaluations, 4, ai -> ai.setPrincipalVariationSearch(true)));
+		// 0-10 is greater than beta, the node is pruned (wrongly)
+		assertEquals(Map.of("a", -20), search(tree, new MarginEvaluator(evaluations, Integer.MAX_VALUE, 10, Integer.MAX_VALUE), 4, withFutilityPruning(true)));
+		// With a greater margin, the node is searched
+		assertEquals(Map.of("a", -30), search(tree, new MarginEvaluator(evaluations, Integer.MAX_VALUE, 40, Integer.MAX_VALUE), 4, withFutilityPruning(true)));
+		// Nodes searched with a full window are not pruned
+		assertEquals(Map.of("a", -30), search(tree, new MarginEvaluator(evaluations, Integer.MAX_VALUE, 10, Integer.MAX_VALUE), 4, withFutilityPruning(false)));
+	}
+
+	@Test
+	void razoringTest() {
+		final Map<String, List<String>> tree = getPruningTree("r", "s");
+		final Map<String, Integer> evaluations = Map.of("axpq", -20, "aymr", -30, "ayms", -5);
+		assertEquals(Map.of("a", -30), search(tree, evaluations, 4, ai -> ai.setPrincipalVariationSearch(true)));
+		// At "aym", 0+10 is below alpha (20), the quiesce search (that returns the static evaluation) confirms the node can't reach alpha
+		final MarginEvaluator evaluator = new MarginEvaluator(evaluations, Integer.MAX_VALUE, Integer.MAX_VALUE, 10);
+		assertEquals(Map.of("a", -20), search(tree, evaluator, 4, withFutilityPruning(true)));
+		// With a greater margin, the node is searched
+		assertEquals(Map.of("a", -30), search(tree, new MarginEvaluator(evaluations, Integer.MAX_VALUE, Integer.MAX_VALUE, 40), 4, withFutilityPruning(true)));
+		// Nodes searched with a full window are not pruned
+		assertEquals(Map.of("a", -30), search(tree, evaluator, 4, withFutilityPruning(false)));
+		// If the quiesce search reaches alpha, the node is searched
+		final Map<String, Integer> quiesceEvaluations = Map.of("aym", 25);
+		assertEquals(Map.of("a", -30), search(tree, evaluator, 4, withFutilityPruning(true).andThen(ai -> ai.setQuiesceEvaluator((ctx, depth, alpha, beta) -> {
+			final TreeGame game = ctx.getGamePosition();
+			return quiesceEvaluations.getOrDefault(game.path.getLast(), evaluator.evaluate(game));
+		}))));
+	}
+
+	@Test
+	void pvsTest() {
+		assertSameResult(ai -> ai.setPrincipalVariationSearch(true));
+
+		// At "a", the window is full, y is searched with a null window, then re-searched as it raises alpha
+		final Map<String, List<String>> tree = Map.of("", List.of("a"), "a", List.of("x", "y"));
+		final Map<String, Integer> evaluations = Map.of("ax", 10, "ay", 0);
+		final List<String> windows = new ArrayList<>();
+		assertEquals(Map.of("a", 0), search(tree, evaluations, 2, ai -> {
+			ai.setPrincipalVariationSearch(true);
+			final QuiesceEvaluator<String, TreeGame> quiesce = ai.getQuiesceEvaluator();
+			ai.setQuiesceEvaluator((ctx, depth, alpha, beta) -> {
+				windows.add(ctx.getGamePosition().path.getLast()+((long)beta-alpha==1 ? " null" : " full"));
+				return quiesce.evaluate(ctx, depth, alpha, beta);
+			});
+		}));
+		assertEquals(List.of("ax full", "ay null", "ay full"), windows);
+	}
+
+	@Test
+	void moveOrderingTest() {
+		assertSameResult(ai -> {
+			ai.setKillerMoves(true);
+			ai.setHistory(new HistoryHeuristic<>(m -> m));
+		});
+	}
+
+	@Test
+	void historyAgingTest() {
+		final AtomicInteger iterations = new AtomicInteger();
+		final HistoryHeuristic<Integer> history = new HistoryHeuristic<>(m -> m) {
+			@Override
+			public void newIteration() {
+				iterations.incrementAndGet();
+				super.newIteration();
+			}
+		};
+		final StaticEvaluator<Integer, RandomTreeGame> evaluator = game -> (int)(RandomTreeGame.mix(game.key()) % 1000);
+		final SearchContext<Integer, RandomTreeGame> context = SearchContext.get(new RandomTreeGame(1), () -> evaluator);
+		try (ExecutionContext<SearchContext<Integer, RandomTreeGame>> exec = ExecutionContext.get(1, context)) {
+			final Negamax<Integer, RandomTreeGame> ai = new Negamax<>(exec);
+			ai.setHistory(history);
+			ai.getBestMoves(new DepthFirstSearchParameters(3, Integer.MAX_VALUE, 0));
+			assertEquals(1, iterations.get());
+			// A re-search of the same depth (for instance with another window) does not age the history
+			final DepthFirstSearchParameters narrow = new DepthFirstSearchParameters(3, Integer.MAX_VALUE, 0);
+			narrow.setWindow(-100, 100);
+			ai.getBestMoves(narrow);
+			assertEquals(1, iterations.get());
+			ai.getBestMoves(new DepthFirstSearchParameters(4, Integer.MAX_VALUE, 0));
+			assertEquals(2, iterations.get());
+			// A new root position ages the history, even at the same depth
+			assertTrue(context.makeMove(1, MoveGenerator.MoveConfidence.UNSAFE));
+			ai.getBestMoves(new DepthFirstSearchParameters(4, Integer.MAX_VALUE, 0));
+			assertEquals(3, iterations.get());
+		}
+	}
+
+	@Test
+	void iidTest() {
+		assertSameResult(ai -> ai.setInternalIterativeDeepening(3, 2));
+
+		// At "a", the reduced search finds that y is the best move, it is searched first
+		final Map<String, List<String>> tree = Map.of("", List.of("a"), "a", List.of("x", "y"), "ax", List.of("p"), "ay", List.of("q"));
+		final Map<String, Integer> evaluations = Map.of("ax", 10, "ay", -10, "axp", 20, "ayq", 0);
+		final List<String> evaluated = new ArrayList<>();
+		final StaticEvaluator<String, TreeGame> evaluator = game -> {
+			evaluated.add(game.path.getLast());
+			return evaluations.getOrDefault(game.path.getLast(), 0);
+		};
+		assertEquals(Map.of("a", -20), search(tree, evaluator, 3, ai -> {}));
+		assertEquals(List.of("axp", "ayq"), evaluated);
+		evaluated.clear();
+		assertEquals(Map.of("a", -20), search(tree, evaluator, 3, ai -> ai.setInternalIterativeDeepening(2, 1)));
+		assertEquals(List.of("ax", "ay", "ayq", "axp"), evaluated);
+	}
+
+	@Test
+	void mateDistancePruningTest() {
+		assertSameResult(ai -> ai.setMateDistancePruning(true));
+	}
+
+	@Test
+	void abdadaTest() {
+		// A table where a quarter of the positions are searched by other threads
+		final AbdadaTable table = new AbdadaTable(16) {
+			@Override
+			public boolean isSearched(long key) {
+				return (key & 3)==0;
+			}
+		};
+		assertThrows(IllegalArgumentException.class, () -> search(1, 2, ai -> ai.setAbdada(table, 0)));
+		assertSameResult(ai -> ai.setAbdada(table, 1));
+		assertSameResult(ai -> {
+			ai.setAbdada(table, 2);
+			ai.setPrincipalVariationSearch(true);
+			ai.setKillerMoves(true);
+		});
+
+		// Positions are left even if the search fails
+		final Set<Long> entered = new HashSet<>();
+		final AbdadaTable recordingTable = new AbdadaTable(16) {
+			@Override
+			public void enter(long key) {
+				entered.add(key);
+			}
+
+			@Override
+			public void leave(long key) {
+				entered.remove(key);
+			}
+		};
+		final AtomicInteger evaluations = new AtomicInteger();
+		final StaticEvaluator<Integer, RandomTreeGame> failingEvaluator = game -> {
+			if (evaluations.incrementAndGet()==50) {
+				throw new IllegalStateException();
+			}
+			return 0;
+		};
+		final SearchContext<Integer, RandomTreeGame> context = SearchContext.get(new RandomTreeGame(1), () -> failingEvaluator);
+		try (ExecutionContext<SearchContext<Integer, RandomTreeGame>> exec = ExecutionContext.get(1, context)) {
+			final Negamax<Integer, RandomTreeGame> ai = new Negamax<>(exec);
+			ai.setAbdada(recordingTable, 1);
+			final DepthFirstSearchParameters params = new DepthFirstSearchParameters(6, Integer.MAX_VALUE, 0);
+			assertThrows(IllegalStateException.class, () -> ai.getBestMoves(params));
+		}
+		assertEquals(50, evaluations.get());
+		assertTrue(entered.isEmpty());
+	}
+
+	@Test
+	void youngBrothersWaitTest() {
+		final ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			assertThrows(IllegalArgumentException.class, () -> search(1, 2, ai -> ai.setYoungBrothersWait(pool, 1)));
+			assertSameResult(ai -> ai.setYoungBrothersWait(pool, 2));
+			assertSameResult(ai -> {
+				ai.setYoungBrothersWait(pool, 3);
+				ai.setPrincipalVariationSearch(true);
+				ai.setKillerMoves(true);
+			});
+		} finally {
+			pool.shutdown();
+		}
+	}
+}
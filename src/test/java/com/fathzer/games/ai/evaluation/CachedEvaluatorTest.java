@@ -0,0 +1,72 @@
+package com.fathzer.games.ai.evaluation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.fathzer.games.HashProvider;
+import com.fathzer.games.ai.transposition.SizeUnit;
+
+class CachedEvaluatorTest {
+	private static class Position implements HashProvider {
+		private final long key;
+		private final int value;
+
+		private Position(long key, int value) {
+			this.key = key;
+			this.value = value;
+		}
+
+		@Override
+		public long getHashKey() {
+			return key;
+		}
+	}
+
+	@Test
+	void test() {
+		assertThrows(IllegalArgumentException.class, () -> new EvaluationCache(8, SizeUnit.B));
+		final EvaluationCache cache = new EvaluationCache(32, SizeUnit.B);
+		assertEquals(2, cache.getSize());
+		final AtomicInteger count = new AtomicInteger();
+		final StaticEvaluator<Void, Object> ev = board -> {
+			count.incrementAndGet();
+			return board instanceof Position p ? p.value : 1;
+		};
+		final CachedEvaluator<Void, Object> cached = new CachedEvaluator<>(ev, cache);
+
+		assertEquals(-5, cached.evaluate(new Position(1, -5)));
+		assertEquals(1, count.get());
+		assertEquals(-5, cached.evaluate(new Position(1, -5)));
+		assertEquals(1, count.get());
+		assertEquals(0, cached.evaluate(new Position(2, 0)));
+		assertEquals(0, cached.evaluate(new Position(2, 0)));
+		assertEquals(2, count.get());
+		// Key 3 has the same index than key 1
+		assertEquals(Integer.MIN_VALUE, cached.evaluate(new Position(3, Integer.MIN_VALUE)));
+		assertEquals(Integer.MIN_VALUE, cached.evaluate(new Position(3, Integer.MIN_VALUE)));
+		assertEquals(3, count.get());
+		assertEquals(10, cached.evaluate(new Position(1, 10)));
+		assertEquals(4, count.get());
+		assertEquals(7, cache.getLookupCount());
+		assertEquals(3, cache.getHitCount());
+		assertEquals(428, cache.getHitPermille());
+
+		// Positions without hash key are not cached
+		assertEquals(1, cached.evaluate("no key"));
+		assertEquals(1, cached.evaluate("no key"));
+		assertEquals(6, count.get());
+		assertEquals(7, cache.getLookupCount());
+
+		// Forks share the cache
+		assertEquals(0, cached.fork().evaluate(new Position(2, 0)));
+		assertEquals(6, count.get());
+
+		cache.clear();
+		assertEquals(0, cache.getLookupCount());
+		assertEquals(0, cache.getHitPermille());
+		assertEquals(EvaluationCache.NOT_FOUND, cache.get(2));
+	}
+}
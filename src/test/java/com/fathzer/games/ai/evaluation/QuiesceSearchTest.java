@@ -0,0 +1,94 @@
+package com.fathzer.games.ai.evaluation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.fathzer.games.MoveGenerator;
+import com.fathzer.games.Status;
+import com.fathzer.games.ai.SearchContext;
+
+class QuiesceSearchTest {
+	/** A game where positions are identified by the sequence of moves played from the root. */
+	private static class TreeGame implements MoveGenerator<String> {
+		private static final Map<String, List<String>> MOVES = Map.of("", List.of("a", "b"), "a", List.of("x"));
+		// Evaluations from the point of view of the player to move
+		private static final Map<String, Integer> EVALUATIONS = Map.of("", 0, "a", -100, "ax", 30, "b", -20);
+		
+		private final LinkedList<String> path = new LinkedList<>(List.of(""));
+
+		@Override
+		public boolean isWhiteToMove() {
+			return path.size()%2==1;
+		}
+
+		@Override
+		public boolean makeMove(String move, MoveConfidence confidence) {
+			path.add(path.getLast()+move);
+			return true;
+		}
+
+		@Override
+		public void unmakeMove() {
+			path.removeLast();
+		}
+
+		@Override
+		public List<String> getMoves() {
+			return Collections.emptyList();
+		}
+
+		@Override
+		public List<String> getQuiesceMoves() {
+			return MOVES.getOrDefault(path.getLast(), Collections.emptyList());
+		}
+
+		@Override
+		public Status getEndGameStatus() {
+			return Status.DRAW;
+		}
+
+		@Override
+		public TreeGame fork() {
+			return new TreeGame();
+		}
+	}
+
+	@Test
+	void test() {
+		final StaticEvaluator<String, TreeGame> evaluator = game -> TreeGame.EVALUATIONS.get(game.path.getLast());
+		final SearchContext<String, TreeGame> context = SearchContext.get(new TreeGame(), () -> evaluator);
+		final QuiesceSearch<String, TreeGame> search = new QuiesceSearch<>();
+		assertNull(search.getTranspositionTable());
+		assertEquals(30, search.evaluate(context, 0, -Integer.MAX_VALUE, Integer.MAX_VALUE));
+		assertEquals(4, context.getStatistics().getQuiesceNodeCount());
+		assertEquals(4, context.getStatistics().getEvaluationCount());
+		// Stand pat
+		assertEquals(-10, search.evaluate(context, 0, -Integer.MAX_VALUE, -10));
+		context.getStatistics().clear();
+		assertEquals(0, context.getStatistics().getQuiesceNodeCount());
+
+		// Move b can't raise alpha after a was searched
+		final QuiesceSearch<String, TreeGame> deltaSearch = new QuiesceSearch<>() {
+			@Override
+			protected int getMaxGain(TreeGame position, String move) {
+				return "b".equals(move) ? 10 : 200;
+			}
+		};
+		deltaSearch.setDeltaMargin(15);
+		assertEquals(15, deltaSearch.getDeltaMargin());
+		assertEquals(30, deltaSearch.evaluate(context, 0, -Integer.MAX_VALUE, Integer.MAX_VALUE));
+		assertEquals(3, context.getStatistics().getQuiesceNodeCount());
+		
+		// With a larger margin, b is searched
+		context.getStatistics().clear();
+		deltaSearch.setDeltaMargin(25);
+		assertEquals(30, deltaSearch.evaluate(context, 0, -Integer.MAX_VALUE, Integer.MAX_VALUE));
+		assertEquals(4, context.getStatistics().getQuiesceNodeCount());
+	}
+}
@@ -8,6 +8,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -45,6 +46,63 @@ class IterativeDeepeningEngineTest {
 		assertEquals(legalMove, getBest(engine.getBestMoves(mg, Arrays.asList(illegalMove, legalMove))));
 	}
 	
+	@Test
+	void lazySMPTest() {
+		final DeepeningPolicy deepeningPolicy = new DeepeningPolicy(4);
+		IterativeDeepeningEngine<Move, ChessLibMoveGenerator> engine = new IterativeDeepeningEngine<>(deepeningPolicy, new TT(16, SizeUnit.MB), BasicEvaluator::new);
+		assertEquals(IterativeDeepeningEngine.ParallelMode.ROOT_SPLITTING, engine.getParallelMode());
+		assertThrows(IllegalArgumentException.class, () -> engine.setParallelMode(null));
+		engine.setParallelMode(IterativeDeepeningEngine.ParallelMode.LAZY_SMP);
+		engine.setParallelism(4);
+		ChessLibMoveGenerator mg = new ChessLibMoveGenerator("r1bq1rk1/3n1ppp/p3p3/2bpP3/Np1B1P1P/7R/PPPQ2P1/2KR1B2 b - - 1 14", BasicMoveComparator::new);
+		assertEquals(new Move(C5, D4), getBest(engine.getBestMoves(mg)));
+		final Move legalMove = new Move(A6, A5);
+		assertEquals(legalMove, getBest(engine.getBestMoves(mg, Arrays.asList(new Move(D3, D4), legalMove))));
+	}
+	
+	@Test
+	void lazySMPHelpersReuseTest() {
+		final AtomicInteger builtAIs = new AtomicInteger();
+		final DeepeningPolicy deepeningPolicy = new DeepeningPolicy(3);
+		try (IterativeDeepeningEngine<Move, ChessLibMoveGenerator> engine = new IterativeDeepeningEngine<>(deepeningPolicy, new TT(16, SizeUnit.MB), BasicEvaluator::new) {
+			@Override
+			protected TTAi<Move, ChessLibMoveGenerator> buildAI(ExecutionContext<SearchContext<Move, ChessLibMoveGenerator>> context) {
+				builtAIs.incrementAndGet();
+				return super.buildAI(context);
+			}
+		}) {
+			engine.setParallelMode(IterativeDeepeningEngine.ParallelMode.LAZY_SMP);
+			engine.setParallelism(3);
+			final ChessLibMoveGenerator mg = new ChessLibMoveGenerator("r1bq1rk1/3n1ppp/p3p3/2bpP3/Np1B1P1P/7R/PPPQ2P1/2KR1B2 b - - 1 14", BasicMoveComparator::new);
+			engine.getBestMoves(mg);
+			// The main AI and 2 helpers
+			assertEquals(3, builtAIs.get());
+			// Only the main AI is built again, helpers are reused
+			engine.getBestMoves(mg);
+			assertEquals(4, builtAIs.get());
+			// Helpers are rebuilt when parallelism changes
+			engine.setParallelism(2);
+			engine.getBestMoves(mg);
+			assertEquals(6, builtAIs.get());
+		}
+	}
+	
+	@Test
+	void workersTest() {
+		final DeepeningPolicy deepeningPolicy = new DeepeningPolicy(4);
+		try (IterativeDeepeningEngine<Move, ChessLibMoveGenerator> engine = new IterativeDeepeningEngine<>(deepeningPolicy, new TT(16, SizeUnit.MB), BasicEvaluator::new)) {
+			engine.setParallelism(2);
+			final ChessLibMoveGenerator mg = new ChessLibMoveGenerator("r1bq1rk1/3n1ppp/p3p3/2bpP3/Np1B1P1P/7R/PPPQ2P1/2KR1B2 b - - 1 14", BasicMoveComparator::new);
+			// The worker threads are reused by the following searches
+			assertEquals(new Move(C5, D4), getBest(engine.getBestMoves(mg)));
+			assertEquals(new Move(C5, D4), getBest(engine.getBestMoves(mg)));
+			engine.setParallelism(3);
+			assertEquals(new Move(C5, D4), getBest(engine.getBestMoves(mg)));
+			engine.close();
+			assertThrows(IllegalStateException.class, () -> engine.getBestMoves(mg));
+		}
+	}
+	
 	@Test
 	void matTest() {
 		final DeepeningPolicy deepeningPolicy = new DeepeningPolicy(4);
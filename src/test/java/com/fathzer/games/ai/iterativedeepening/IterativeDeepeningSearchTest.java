@@ -0,0 +1,96 @@
+package com.fathzer.games.ai.iterativedeepening;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.fathzer.games.ai.DepthFirstAI;
+import com.fathzer.games.ai.DepthFirstSearchParameters;
+import com.fathzer.games.ai.SearchResult;
+import com.fathzer.games.ai.SearchStatistics;
+import com.fathzer.games.ai.evaluation.EvaluatedMove;
+import com.fathzer.games.ai.evaluation.Evaluation;
+
+class IterativeDeepeningSearchTest {
+	/** A fake AI that returns predefined scores, bounded by the search window. */
+	private static class FakeAI implements DepthFirstAI<String, DepthFirstSearchParameters> {
+		private final Map<Integer, Map<String, Integer>> scores;
+		private final List<int[]> windows = new ArrayList<>();
+
+		private FakeAI(Map<Integer, Map<String, Integer>> scores) {
+			this.scores = scores;
+		}
+
+		@Override
+		public SearchResult<String> getBestMoves(DepthFirstSearchParameters parameters) {
+			return getBestMoves(Arrays.asList("a", "b"), parameters);
+		}
+
+		@Override
+		public SearchResult<String> getBestMoves(List<String> possibleMoves, DepthFirstSearchParameters parameters) {
+			windows.add(new int[] {parameters.getDepth(), parameters.getWindowLow(), parameters.getWindowHigh()});
+			final SearchResult<String> result = new SearchResult<>(parameters);
+			for (String move : possibleMoves) {
+				final int score = scores.get(parameters.getDepth()).get(move);
+				result.add(move, Evaluation.score(Math.max(parameters.getWindowLow(), Math.min(parameters.getWindowHigh(), score))));
+			}
+			return result;
+		}
+
+		@Override
+		public boolean isInterrupted() {
+			return false;
+		}
+
+		@Override
+		public void interrupt() {
+			// Never interrupted
+		}
+
+		@Override
+		public SearchStatistics getStatistics() {
+			return new SearchStatistics();
+		}
+	}
+
+	@Test
+	void aspirationTest() {
+		final FakeAI ai = new FakeAI(Map.of(2, Map.of("a", 10, "b", 5), 3, Map.of("a", 100, "b", 5), 4, Map.of("a", 90, "b", -100)));
+		final DeepeningPolicy policy = new DeepeningPolicy(4);
+		assertThrows(IllegalArgumentException.class, () -> policy.setAspirationWindow(-1));
+		policy.setAspirationWindow(10);
+		final IterativeDeepeningSearch<String> search = new IterativeDeepeningSearch<>(ai, policy);
+		final List<EvaluatedMove<String>> result = search.getSearchHistory().getLastList();
+		assertEquals("a", result.get(0).getMove());
+		assertEquals(90, result.get(0).getScore());
+
+		final int[][] expected = {
+				{2, Integer.MIN_VALUE, Integer.MAX_VALUE},
+				// Fail high until the window contains 100
+				{3, -1, 20}, {3, -1, 30}, {3, -1, 50}, {3, -1, 90}, {3, -1, 170},
+				// Window is centered on 100
+				{4, 89, 110}};
+		assertEquals(expected.length, ai.windows.size());
+		for (int i = 0; i < expected.length; i++) {
+			assertArrayEquals(expected[i], ai.windows.get(i));
+		}
+	}
+
+	@Test
+	void failLowTest() {
+		final FakeAI ai = new FakeAI(Map.of(2, Map.of("a", 10, "b", 5), 3, Map.of("a", -20, "b", -30)));
+		final DeepeningPolicy policy = new DeepeningPolicy(3);
+		policy.setAspirationWindow(10);
+		final IterativeDeepeningSearch<String> search = new IterativeDeepeningSearch<>(ai, policy);
+		final List<EvaluatedMove<String>> result = search.getSearchHistory().getLastList();
+		assertEquals("a", result.get(0).getMove());
+		assertEquals(-20, result.get(0).getScore());
+		assertEquals(4, ai.windows.size());
+		assertArrayEquals(new int[] {3, -31, 20}, ai.windows.get(3));
+	}
+}
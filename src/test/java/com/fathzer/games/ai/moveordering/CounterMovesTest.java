@@ -0,0 +1,27 @@
+package com.fathzer.games.ai.moveordering;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class CounterMovesTest {
+
+	@Test
+	void test() {
+		assertThrows(IllegalArgumentException.class, () -> new CounterMoves<>(0));
+		assertThrows(IllegalArgumentException.class, () -> new CounterMoves<>(12));
+		final CounterMoves<Integer> counters = new CounterMoves<>(4);
+		assertNull(counters.get(1));
+		counters.set(1, 10);
+		counters.set(2, 20);
+		assertEquals(10, counters.get(1));
+		assertEquals(20, counters.get(2));
+		// 5 has the same index than 1
+		assertNull(counters.get(5));
+		counters.set(5, 50);
+		assertEquals(50, counters.get(5));
+		assertNull(counters.get(1));
+		counters.clear();
+		assertNull(counters.get(2));
+	}
+}
@@ -0,0 +1,57 @@
+package com.fathzer.games.ai.moveordering;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class HistoryHeuristicTest {
+
+	@Test
+	void test() {
+		assertThrows(IllegalArgumentException.class, () -> new HistoryHeuristic<Integer>(m -> m, 0));
+		assertThrows(IllegalArgumentException.class, () -> new HistoryHeuristic<Integer>(m -> m, 3));
+		final HistoryHeuristic<Integer> history = new HistoryHeuristic<>(m -> m);
+		assertEquals(0, history.getScore(1));
+		history.cutoffDone(1, 2);
+		history.cutoffDone(2, 3);
+		history.cutoffDone(1, 1);
+		assertEquals(5, history.getScore(1));
+		assertEquals(9, history.getScore(2));
+
+		final List<Integer> moves = new ArrayList<>(List.of(3, 1, 4, 2));
+		moves.sort(history.getComparator());
+		assertEquals(List.of(2, 1, 3, 4), moves);
+
+		// Scores are halved at each new iteration
+		history.newIteration();
+		assertEquals(2, history.getScore(1));
+		assertEquals(4, history.getScore(2));
+		history.newIteration();
+		history.newIteration();
+		assertEquals(0, history.getScore(1));
+		assertEquals(1, history.getScore(2));
+
+		history.clear();
+		assertEquals(0, history.getScore(2));
+	}
+
+	@Test
+	void threadsTest() throws InterruptedException {
+		final HistoryHeuristic<Integer> history = new HistoryHeuristic<>(m -> m, 1024);
+		history.cutoffDone(1, 2);
+		final AtomicInteger otherThreadScore = new AtomicInteger(-1);
+		final Thread thread = new Thread(() -> {
+			history.cutoffDone(1, 3);
+			otherThreadScore.set(history.getScore(1));
+		});
+		thread.start();
+		thread.join();
+		// Each thread has its own table
+		assertEquals(9, otherThreadScore.get());
+		assertEquals(4, history.getScore(1));
+	}
+}
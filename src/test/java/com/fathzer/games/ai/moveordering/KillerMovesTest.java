@@ -0,0 +1,39 @@
+package com.fathzer.games.ai.moveordering;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class KillerMovesTest {
+
+	@Test
+	void test() {
+		final KillerMoves<String> killers = new KillerMoves<>();
+		assertNull(killers.get(3, 0));
+		assertNull(killers.get(100, 1));
+		killers.add(3, "a");
+		assertEquals("a", killers.get(3, 0));
+		assertNull(killers.get(3, 1));
+		killers.add(3, "b");
+		assertEquals("b", killers.get(3, 0));
+		assertEquals("a", killers.get(3, 1));
+		// Adding the first killer again changes nothing
+		killers.add(3, "b");
+		assertEquals("a", killers.get(3, 1));
+		killers.add(3, "c");
+		assertEquals("c", killers.get(3, 0));
+		assertEquals("b", killers.get(3, 1));
+		assertTrue(killers.isKiller(3, "b"));
+		assertFalse(killers.isKiller(3, "a"));
+		assertFalse(killers.isKiller(2, "b"));
+
+		// Table grows as needed
+		killers.add(100, "z");
+		assertEquals("z", killers.get(100, 0));
+		assertEquals("c", killers.get(3, 0));
+
+		killers.clear();
+		assertNull(killers.get(3, 0));
+		assertNull(killers.get(100, 0));
+	}
+}
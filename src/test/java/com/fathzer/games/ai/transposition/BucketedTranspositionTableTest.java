@@ -0,0 +1,97 @@
+package com.fathzer.games.ai.transposition;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import com.fathzer.games.MoveGenerator;
+
+class BucketedTranspositionTableTest {
+	static class TT<B extends MoveGenerator<Integer>> extends BucketedTranspositionTable<Integer, B> {
+		public TT(int size, SizeUnit unit) {
+			super(size, unit);
+		}
+		protected int toInt(Integer move) {
+			return move;
+		}
+		protected Integer toMove(int value) {
+			return value;
+		}
+	}
+
+	@Test
+	void test() {
+		assertThrows(IllegalArgumentException.class, () -> new TT<>(32, SizeUnit.B));
+
+		// 2 buckets of 4 entries
+		final BucketedTranspositionTable<Integer, ?> table = new TT<>(128, SizeUnit.B);
+		assertEquals(8, table.getSize());
+
+		// Keys 0, 2, 4, 6 share the same bucket
+		for (int i = 0; i < 4; i++) {
+			assertTrue(table.store(2L*i, EntryType.EXACT, i+1, 10*i, i, p->true));
+		}
+		assertEquals(4, table.getEntryCount());
+		for (int i = 0; i < 4; i++) {
+			final TranspositionTableEntry<Integer> entry = table.get(2L*i);
+			assertTrue(entry.isValid());
+			assertEquals(i+1, entry.getDepth());
+			assertEquals(10*i, entry.getValue());
+			assertEquals(i, entry.getMove());
+		}
+
+		// Replace an existing key
+		assertTrue(table.store(4L, EntryType.LOWER_BOUND, 5, 50, 5, p->true));
+		assertEquals(4, table.getEntryCount());
+		assertEquals(5, table.get(4L).getDepth());
+		assertEquals(EntryType.LOWER_BOUND, table.get(4L).getEntryType());
+
+		// A new key in the full bucket replaces the shallowest entry (key 0)
+		assertTrue(table.store(8L, EntryType.EXACT, 3, 80, 8, p->true));
+		assertFalse(table.get(0L).isValid());
+		for (long key : new long[] {2L, 4L, 6L, 8L}) {
+			assertTrue(table.get(key).isValid());
+		}
+
+		// The validator is applied to the victim
+		assertFalse(table.store(10L, EntryType.EXACT, 3, 80, 8, p->p.getDepth()<2));
+		assertFalse(table.get(10L).isValid());
+
+		// Other bucket is not affected
+		table.getStatistics().setEnabled(true);
+		assertFalse(table.get(1L).isValid());
+		assertTrue(table.store(1L, EntryType.EXACT, 1, 1, 1, p->true));
+		assertTrue(table.get(1L).isValid());
+		assertEquals(0, table.getStatistics().getKeyMismatchCount());
+		assertEquals(1, table.getStatistics().getHitCount());
+		
+		// A probe in a bucket containing other keys is a key mismatch
+		assertFalse(table.get(10L).isValid());
+		assertEquals(1, table.getStatistics().getKeyMismatchCount());
+		assertEquals(3, table.getStatistics().getProbeCount());
+	}
+
+	@Test
+	void ageTest() {
+		final BucketedTranspositionTable<Integer, ?> table = new TT<>(128, SizeUnit.B);
+		for (int i = 0; i < 4; i++) {
+			table.store(2L*i, EntryType.EXACT, 10, 10*i, i, p->true);
+		}
+		// New position does not clear the table
+		table.newPosition(null);
+		assertTrue(table.get(0L).isValid());
+		table.store(0L, EntryType.EXACT, 10, 0, 0, p->true);
+
+		// A shallow entry replaces an old deep entry, but not the one refreshed in current search
+		table.newPosition(null);
+		table.store(0L, EntryType.EXACT, 10, 0, 0, p->true);
+		assertTrue(table.store(8L, EntryType.EXACT, 1, 80, 8, p->true));
+		assertTrue(table.get(0L).isValid());
+		assertTrue(table.get(8L).isValid());
+
+		// New game clears the table
+		table.newGame();
+		assertEquals(0, table.getEntryCount());
+		assertFalse(table.get(0L).isValid());
+	}
+}
@@ -4,6 +4,7 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 
 import org.junit.jupiter.api.Test;
 
@@ -23,11 +24,42 @@ import com.github.bhlangonijr.chesslib.move.Move;
 class NegamaxWithTTTest {
 	@Test
 	void test2MatsIn4() {
+		test2MatsIn4(ai -> {});
+	}
+
+	@Test
+	void test2MatsIn4WithPVS() {
+		test2MatsIn4(ai -> ai.setPrincipalVariationSearch(true));
+	}
+
+	@Test
+	void test2MatsIn4WithNullMove() {
+		test2MatsIn4(ai -> {
+			ai.setPrincipalVariationSearch(true);
+			ai.setNullMoveReduction(2);
+		});
+	}
+
+	@Test
+	void test2MatsIn4WithIID() {
+		test2MatsIn4(ai -> {
+			assertThrows(IllegalArgumentException.class, () -> ai.setInternalIterativeDeepening(3, 3));
+			ai.setInternalIterativeDeepening(3, 2);
+		});
+	}
+
+	@Test
+	void test2MatsIn4WithMateDistancePruning() {
+		test2MatsIn4(ai -> ai.setMateDistancePruning(true));
+	}
+
+	private void test2MatsIn4(Consumer<Negamax<Move, ChessLibMoveGenerator>> config) {
 		final ChessLibMoveGenerator mg = new ChessLibMoveGenerator("8/4k3/8/R7/8/8/8/4K2R w K - 0 1", BasicMoveComparator::new);
 		final Evaluator<Move, ChessLibMoveGenerator> basicEvaluator = new BasicEvaluator();
 		final SearchContext<Move, ChessLibMoveGenerator> sc = SearchContext.get(mg, () -> basicEvaluator);
 		try (ExecutionContext<SearchContext<Move, ChessLibMoveGenerator>> exec = ExecutionContext.get(1, sc)) {
 			Negamax<Move, ChessLibMoveGenerator> ai = new Negamax<>(exec);
+			config.accept(ai);
 			final TT tt = new TT(16, SizeUnit.MB);
 			ai.setTranspositonTable(tt);
 			final Move a5a6 = new Move(Square.A5, Square.A6);
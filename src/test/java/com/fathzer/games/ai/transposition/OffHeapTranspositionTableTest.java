@@ -0,0 +1,141 @@
+package com.fathzer.games.ai.transposition;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+
+import com.fathzer.games.MoveGenerator;
+import com.fathzer.games.util.UncheckedException;
+
+class OffHeapTranspositionTableTest {
+	private static class TT<B extends MoveGenerator<Integer>> extends OffHeapTranspositionTable<Integer, B> {
+		public TT(int size, SizeUnit unit) {
+			super(size, unit);
+		}
+		public TT(int size, SizeUnit unit, int parallelism) {
+			super(size, unit, true, parallelism);
+		}
+		protected int toInt(Integer move) {
+			return move;
+		}
+		protected Integer toMove(int value) {
+			return value;
+		}
+	}
+
+	@Test
+	void test() {
+		final OffHeapTranspositionTable<Integer, ?> table = new TT<>(1, SizeUnit.MB);
+		assertEquals(1024*1024/16, table.getSize());
+		assertEquals(1024*1024/16, table.getLongSize());
+		assertEquals(1, table.getMemorySizeMB());
+		assertFalse(table.get(5L).isValid());
+		assertTrue(table.store(5L, EntryType.LOWER_BOUND, 3, -200, 12, p->true));
+		final TranspositionTableEntry<Integer> entry = table.get(5L);
+		assertTrue(entry.isValid());
+		assertEquals(EntryType.LOWER_BOUND, entry.getEntryType());
+		assertEquals(3, entry.getDepth());
+		assertEquals(-200, entry.getValue());
+		assertEquals(12, entry.getMove());
+		assertEquals(1, table.getEntryCount());
+		assertEquals(1, table.getLongEntryCount());
+		table.newGame();
+		assertFalse(table.get(5L).isValid());
+	}
+
+	@Test
+	void parallelTest() {
+		assertThrows(IllegalArgumentException.class, () -> new TT<>(1, SizeUnit.MB, 0));
+		// 4 chunks of 64MB
+		final OffHeapTranspositionTable<Integer, ?> table = new TT<>(256, SizeUnit.MB, 4);
+		assertEquals(4, table.getParallelism());
+		assertEquals(256, table.getMemorySizeMB());
+		final long[] keys = {0L, 5L, table.getLongSize()/2+1, table.getLongSize()-1};
+		for (long key : keys) {
+			assertTrue(table.store(key, EntryType.EXACT, 1, 1, 1, p->true));
+		}
+		for (long key : keys) {
+			assertTrue(table.get(key).isValid());
+		}
+		table.newGame();
+		for (long key : keys) {
+			assertFalse(table.get(key).isValid());
+		}
+		assertEquals(0, table.getEntryCount());
+
+		// An interrupted clear does not return normally
+		Thread.currentThread().interrupt();
+		final UncheckedException e = assertThrows(UncheckedException.class, table::newGame);
+		assertTrue(e.getCause() instanceof InterruptedException);
+		assertTrue(Thread.interrupted());
+	}
+
+	@Test
+	void saveLoadTest() throws IOException {
+		final Path file = Files.createTempFile("tt", ".bin");
+		try {
+			final OffHeapTranspositionTable<Integer, ?> table = new TT<>(1, SizeUnit.MB);
+			table.store(5L, EntryType.LOWER_BOUND, 3, -200, 12, p->true);
+			table.newPosition(null);
+			table.store(table.getLongSize()-1, EntryType.EXACT, 4, 100, 8, p->true);
+			table.save(file);
+			assertEquals(TableSnapshot.HEADER_SIZE + 1024*1024, Files.size(file));
+
+			// Load in another table, stored in heap
+			final OneLongEntryTranspositionTable<Integer, ?> other = new OneLongEntryTranspositionTableTest.TT<>(1, SizeUnit.MB);
+			other.load(file);
+			assertEquals(2, other.getEntryCount());
+			TranspositionTableEntry<Integer> entry = other.get(5L);
+			assertTrue(entry.isValid());
+			assertEquals(EntryType.LOWER_BOUND, entry.getEntryType());
+			assertEquals(-200, entry.getValue());
+			assertEquals(12, entry.getMove());
+			assertEquals(1, entry.getAge());
+			entry = other.get(table.getLongSize()-1);
+			assertTrue(entry.isValid());
+			assertEquals(0, entry.getAge());
+			assertEquals(8, entry.getMove());
+
+			// Incompatible tables
+			final OneLongEntryTranspositionTable<Integer, ?> bigger = new TT<>(2, SizeUnit.MB);
+			assertThrows(IOException.class, () -> bigger.load(file));
+			final OneLongEntryTranspositionTable<Integer, ?> bucketed = new BucketedTranspositionTableTest.TT<>(1, SizeUnit.MB);
+			assertThrows(IOException.class, () -> bucketed.load(file));
+			Files.write(file, new byte[] {1,2,3});
+			assertThrows(IOException.class, () -> other.load(file));
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test
+	void chunksTest() {
+		// 3 chunks of 8 longs, the last one being partial
+		final DirectLongArray array = new DirectLongArray(20, 3, 1);
+		assertEquals(20, array.length());
+		for (long i = 0; i < array.length(); i++) {
+			array.set(i, -i);
+		}
+		for (long i = 0; i < array.length(); i++) {
+			assertEquals(-i, array.get(i));
+		}
+		assertThrows(IndexOutOfBoundsException.class, () -> array.get(20));
+	}
+
+	@Test
+	void unalignedChunksTest() {
+		// Chunks of 4 longs (32 bytes, less than the alignment), the last one contains only one long
+		final DirectLongArray array = new DirectLongArray(13, 2, 1);
+		assertEquals(13, array.length());
+		for (long i = 0; i < array.length(); i++) {
+			array.set(i, i*3);
+		}
+		for (long i = 0; i < array.length(); i++) {
+			assertEquals(i*3, array.get(i));
+		}
+	}
+}
@@ -3,16 +3,20 @@ package com.fathzer.games.ai.transposition;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.junit.jupiter.api.Test;
 
 import com.fathzer.games.MoveGenerator;
 
 class OneLongEntryTranspositionTableTest {
-	private static class TT<B extends MoveGenerator<Integer>> extends OneLongEntryTranspositionTable<Integer, B> {
+	static class TT<B extends MoveGenerator<Integer>> extends OneLongEntryTranspositionTable<Integer, B> {
 		public TT(int size, SizeUnit unit) {
 			super(size, unit);
 		}
+		public TT(int size, SizeUnit unit, boolean lockFree) {
+			super(size, unit, lockFree);
+		}
 		protected int toInt(Integer move) {
 			return move;
 		}
@@ -23,7 +27,18 @@ class OneLongEntryTranspositionTableTest {
 	
 	@Test
 	void test() {
-		OneLongEntryTranspositionTable<Integer, ?> table = new TT<>(512, SizeUnit.KB);
+		test(new TT<>(512, SizeUnit.KB));
+	}
+
+	@Test
+	void lockFreeTest() {
+		final OneLongEntryTranspositionTable<Integer, ?> table = new TT<>(512, SizeUnit.KB, true);
+		assertTrue(table.isLockFree());
+		assertFalse(new TT<>(512, SizeUnit.KB).isLockFree());
+		test(table);
+	}
+	
+	private void test(OneLongEntryTranspositionTable<Integer, ?> table) {
 		assertEquals(0,table.getEntryCount());
 		assertEquals(512*1024/(2*8),table.getSize());
 		
@@ -90,6 +105,163 @@ class OneLongEntryTranspositionTableTest {
 		return count;
 	}
 	
+	@Test
+	void concurrentLockFreeTest() throws InterruptedException {
+		final OneLongEntryTranspositionTable<Integer,?> table = new TT<>(32, SizeUnit.B, true);
+		final int nbThreads = 4;
+		final Thread[] threads = new Thread[nbThreads];
+		final AtomicBoolean error = new AtomicBoolean();
+		for (int i = 0; i < nbThreads; i++) {
+			final int move = i+1;
+			threads[i] = new Thread(() -> {
+				for (int j = 0; j < 100000; j++) {
+					// All threads write the same slot with consistent key/move pairs
+					final long key = 2L*((j+move)%8);
+					table.store(key, EntryType.EXACT, move, (int)key, (int)key, p->true);
+					final TranspositionTableEntry<Integer> entry = table.get(key);
+					if (entry.isValid() && (entry.getMove()!=key || entry.getValue()!=key)) {
+						error.set(true);
+					}
+				}
+			});
+			threads[i].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertFalse(error.get(), "A torn entry was returned");
+	}
+	
+	@Test
+	void concurrentEntryCountTest() throws InterruptedException {
+		final OneLongEntryTranspositionTable<Integer,?> table = new TT<>(64, SizeUnit.KB, true);
+		final int nbThreads = 4;
+		final Thread[] threads = new Thread[nbThreads];
+		for (int i = 0; i < nbThreads; i++) {
+			final int first = i*1000+1;
+			threads[i] = new Thread(() -> {
+				// Each thread writes its own slots, so the count should be exact
+				for (int key = first; key < first+1000; key++) {
+					table.store(key, EntryType.EXACT, 1, key, key, p->true);
+				}
+			});
+			threads[i].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertEquals(nbThreads*1000, table.getEntryCount());
+	}
+	
+	@Test
+	void generationTest() {
+		final OneLongEntryTranspositionTable<Integer,?> table = new TT<>(32, SizeUnit.B);
+		final BasicPolicy<Integer, ?> policy = new BasicPolicy<>();
+		table.store(1L, EntryType.EXACT, 4, 100, 10, p->true);
+		assertEquals(0, table.get(1L).getAge());
+		// A shallow entry does not replace a deep exact one in the same search 
+		assertFalse(table.store(3L, EntryType.LOWER_BOUND, 1, 0, 0, p->policy.shouldReplace(p, 3L, 1, EntryType.LOWER_BOUND)));
+		
+		// New position keeps the table, but ages entries
+		table.newPosition(null);
+		TranspositionTableEntry<Integer> entry = table.get(1L);
+		assertTrue(entry.isValid());
+		assertEquals(1, entry.getAge());
+		assertEquals(100, entry.getValue());
+		assertEquals(1, table.getEntryCount());
+		
+		// Stale entries are replaceable
+		assertTrue(table.store(3L, EntryType.LOWER_BOUND, 1, 0, 0, p->policy.shouldReplace(p, 3L, 1, EntryType.LOWER_BOUND)));
+		assertFalse(table.get(1L).isValid());
+		assertEquals(0, table.get(3L).getAge());
+		
+		// New game clears the table
+		table.newGame();
+		assertFalse(table.get(3L).isValid());
+		assertEquals(0, table.getEntryCount());
+	}
+	
+	@Test
+	void reuseTest() {
+		final OneLongEntryTranspositionTable<Integer,?> table = new TT<>(512, SizeUnit.KB);
+		final AtomicBoolean validatorCalled = new AtomicBoolean();
+		final ReplacementValidator<Integer> validator = (entry, key, depth, type) -> {
+			validatorCalled.set(true);
+			assertEquals(2L, key);
+			assertEquals(3, depth);
+			assertEquals(EntryType.EXACT, type);
+			return true;
+		};
+		assertTrue(table.store(2L, EntryType.EXACT, 3, 30, 4, validator));
+		assertTrue(validatorCalled.get());
+
+		final TranspositionTableEntry<Integer> entry = table.get(2L, null);
+		assertEquals(30, entry.getValue());
+		// Entry is reused
+		assertSame(entry, table.get(1L, entry));
+		assertFalse(entry.isValid());
+		assertSame(entry, table.get(2L, entry));
+		assertEquals(30, entry.getValue());
+		assertEquals(4, entry.getMove());
+		// Entries from another table are not reused
+		assertNotSame(entry, new TT<>(512, SizeUnit.KB).get(2L, entry));
+
+		final BasicPolicy<Integer, ?> policy = new BasicPolicy<>();
+		final AlphaBetaState<Integer> state = new AlphaBetaState<>(0, 0, 0);
+		assertSame(state, policy.accept(entry, state.reset(2, -100, 100), v->v));
+		assertTrue(state.isValueSet());
+		assertEquals(30, state.getValue());
+		assertEquals(4, state.getBestMove());
+		state.reset(4, -100, 100);
+		assertFalse(state.isValueSet());
+		assertNull(state.getBestMove());
+	}
+
+	@Test
+	void statisticsTest() {
+		final OneLongEntryTranspositionTable<Integer,?> table = new TT<>(32, SizeUnit.B);
+		final TranspositionTableStatistics stats = table.getStatistics();
+		assertFalse(stats.isEnabled());
+		table.get(1L);
+		assertEquals(0, stats.getProbeCount());
+		
+		stats.setEnabled(true);
+		assertFalse(table.get(1L).isValid());
+		assertTrue(table.store(1L, EntryType.EXACT, 4, 100, 10, p->true));
+		assertTrue(table.get(1L).isValid());
+		// Key 3 has the same slot than 1
+		assertFalse(table.get(3L).isValid());
+		assertFalse(table.store(3L, EntryType.EXACT, 1, 0, 0, p->false));
+		assertTrue(table.store(3L, EntryType.EXACT, 1, 0, 0, p->true));
+		assertEquals(3, stats.getProbeCount());
+		assertEquals(1, stats.getHitCount());
+		assertEquals(1, stats.getKeyMismatchCount());
+		assertEquals(2, stats.getStoreCount());
+		assertEquals(1, stats.getRejectedStoreCount());
+		assertEquals(1, stats.getOverwriteCount());
+		
+		stats.clear();
+		assertEquals(0, stats.getProbeCount());
+		assertEquals(0, stats.getStoreCount());
+	}
+
+	@Test
+	void fillPermilleTest() {
+		final OneLongEntryTranspositionTable<Integer,?> table = new TT<>(64, SizeUnit.KB);
+		assertEquals(0, table.getFillPermille());
+		for (long key = 0; key < 500; key++) {
+			table.store(key, EntryType.EXACT, 1, 0, 0, p->true);
+		}
+		assertEquals(500, table.getFillPermille());
+		// Entries of previous searches are not counted
+		table.newPosition(null);
+		assertEquals(0, table.getFillPermille());
+		
+		final OneLongEntryTranspositionTable<Integer,?> small = new TT<>(64, SizeUnit.B);
+		small.store(0L, EntryType.EXACT, 1, 0, 0, p->true);
+		assertEquals(250, small.getFillPermille());
+	}
+
 	@Test
 	void memorySizeTest() {
 		OneLongEntryTranspositionTable<Integer, ?> table = new TT<>(32, SizeUnit.MB);
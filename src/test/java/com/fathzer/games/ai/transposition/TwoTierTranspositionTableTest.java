@@ -0,0 +1,70 @@
+package com.fathzer.games.ai.transposition;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import com.fathzer.games.MoveGenerator;
+
+class TwoTierTranspositionTableTest {
+	static class TT<B extends MoveGenerator<Integer>> extends TwoTierTranspositionTable<Integer, B> {
+		public TT(int size, SizeUnit unit) {
+			super(size, unit);
+		}
+		protected int toInt(Integer move) {
+			return move;
+		}
+		protected Integer toMove(int value) {
+			return value;
+		}
+	}
+
+	@Test
+	void test() {
+		assertThrows(IllegalArgumentException.class, () -> new TT<>(16, SizeUnit.B));
+
+		// 2 indexes of 2 entries
+		final TwoTierTranspositionTable<Integer, ?> table = new TT<>(64, SizeUnit.B);
+		assertEquals(4, table.getSize());
+		final BasicPolicy<Integer, ?> policy = new BasicPolicy<>();
+
+		// Keys 0, 2, 4 share the same index
+		assertTrue(table.store(0L, EntryType.EXACT, 5, 50, 0, p->policy.shouldReplace(p, 0L, 5, EntryType.EXACT)));
+		// A shallower entry is stored in the always-replace entry
+		assertTrue(table.store(2L, EntryType.LOWER_BOUND, 1, 20, 2, p->policy.shouldReplace(p, 2L, 1, EntryType.LOWER_BOUND)));
+		assertEquals(5, table.get(0L).getDepth());
+		assertEquals(1, table.get(2L).getDepth());
+		assertEquals(2, table.getEntryCount());
+
+		// A new shallow entry replaces the always-replace entry, the deep one remains
+		assertTrue(table.store(4L, EntryType.UPPER_BOUND, 1, 40, 4, p->policy.shouldReplace(p, 4L, 1, EntryType.UPPER_BOUND)));
+		assertTrue(table.get(0L).isValid());
+		assertFalse(table.get(2L).isValid());
+		assertEquals(40, table.get(4L).getValue());
+
+		// A deeper entry replaces the depth-preferred entry
+		assertTrue(table.store(2L, EntryType.EXACT, 6, 20, 2, p->policy.shouldReplace(p, 2L, 6, EntryType.EXACT)));
+		assertFalse(table.get(0L).isValid());
+		assertEquals(6, table.get(2L).getDepth());
+		assertTrue(table.get(4L).isValid());
+
+		// Other index is not affected
+		assertFalse(table.get(1L).isValid());
+		assertEquals(2, table.getEntryCount());
+
+		// A shallower entry with the key of the depth-preferred entry is discarded
+		assertFalse(table.store(2L, EntryType.LOWER_BOUND, 2, 30, 2, p->policy.shouldReplace(p, 2L, 2, EntryType.LOWER_BOUND)));
+		assertEquals(6, table.get(2L).getDepth());
+		assertEquals(40, table.get(4L).getValue());
+
+		// A key moved to the depth-preferred entry is removed from the always-replace entry
+		assertTrue(table.store(4L, EntryType.EXACT, 7, 45, 4, p->policy.shouldReplace(p, 4L, 7, EntryType.EXACT)));
+		assertEquals(7, table.get(4L).getDepth());
+		assertFalse(table.get(2L).isValid());
+		assertEquals(1, table.getEntryCount());
+		assertTrue(table.store(6L, EntryType.UPPER_BOUND, 1, 60, 6, p->policy.shouldReplace(p, 6L, 1, EntryType.UPPER_BOUND)));
+		assertEquals(7, table.get(4L).getDepth());
+		assertEquals(60, table.get(6L).getValue());
+		assertEquals(2, table.getEntryCount());
+	}
+}
@@ -8,6 +8,8 @@ import com.fathzer.games.MoveGenerator;
 import com.fathzer.games.HashProvider;
 import com.fathzer.games.Status;
 import com.github.bhlangonijr.chesslib.Board;
+import com.github.bhlangonijr.chesslib.Piece;
+import com.github.bhlangonijr.chesslib.PieceType;
 import com.github.bhlangonijr.chesslib.Side;
 import com.github.bhlangonijr.chesslib.move.Move;
 
@@ -57,6 +59,38 @@ public class ChessLibMoveGenerator implements MoveGenerator<Move>, HashProvider
 		board.undoMove();
 	}
 	
+	@Override
+	public boolean isTactical(Move move) {
+		return move.getPromotion()!=Piece.NONE || board.getPiece(move.getTo())!=Piece.NONE;
+	}
+
+	@Override
+	public boolean isReducible(Move move) {
+		return move.getPromotion()==Piece.NONE && board.getPiece(move.getTo())==Piece.NONE && !board.isKingAttacked();
+	}
+
+	@Override
+	public boolean isNullMoveSupported() {
+		return true;
+	}
+
+	@Override
+	public boolean makeNullMove() {
+		final Side side = board.getSideToMove();
+		final long pawnsAndKing = board.getBitboard(Piece.make(side, PieceType.PAWN)) | board.getBitboard(Piece.make(side, PieceType.KING));
+		if (board.isKingAttacked() || (board.getBitboard(side) & ~pawnsAndKing)==0) {
+			// Null move is illegal in check and dangerous when only pawns are left (zugzwang)
+			return false;
+		}
+		board.doNullMove();
+		return true;
+	}
+
+	@Override
+	public void unmakeNullMove() {
+		board.undoMove();
+	}
+
 	@Override
 	public List<Move> getMoves() {
 		final List<Move> moves = board.pseudoLegalMoves();
@@ -66,6 +100,7 @@ public class ChessLibMoveGenerator implements MoveGenerator<Move>, HashProvider
 		return moves;
 	}
 	
+	@Override
 	public List<Move> getQuiesceMoves() {
 		final List<Move> moves = board.pseudoLegalCaptures();
 		if (comparator!=null) {
@@ -0,0 +1,31 @@
+package com.fathzer.games.chess;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.bhlangonijr.chesslib.Piece;
+import com.github.bhlangonijr.chesslib.Square;
+import com.github.bhlangonijr.chesslib.move.Move;
+
+class ChessLibMoveGeneratorTest {
+
+	@Test
+	void tacticalTest() {
+		final ChessLibMoveGenerator mg = new ChessLibMoveGenerator("4k3/1P6/8/3p4/4P3/8/8/4K3 w - - 0 1", BasicMoveComparator::new);
+		// Captures and promotions are tactical
+		final Move capture = new Move(Square.E4, Square.D5);
+		final Move promotion = new Move(Square.B7, Square.B8, Piece.WHITE_QUEEN);
+		assertTrue(mg.isTactical(capture));
+		assertTrue(mg.isTactical(promotion));
+		assertFalse(mg.isReducible(capture));
+		assertFalse(mg.isReducible(promotion));
+		// Other moves are not
+		final Move pawnPush = new Move(Square.E4, Square.E5);
+		final Move kingMove = new Move(Square.E1, Square.D1);
+		assertFalse(mg.isTactical(pawnPush));
+		assertFalse(mg.isTactical(kingMove));
+		assertTrue(mg.isReducible(pawnPush));
+		assertTrue(mg.isReducible(kingMove));
+	}
+}
@@ -49,4 +49,23 @@ class MoveListTest {
 			assertEquals(expected.get(i), mvList.get(i));
 		}
     }
+
+    @Test
+    void testPromote() {
+        final MoveList<Integer> mvList = new MoveList<>();
+        mvList.setComparator(COMPARATOR);
+        mvList.addAll(List.of(3, 2, 5, 4, 8, 6, 1));
+        mvList.sort();
+        // Sorted elements can't be promoted
+        assertFalse(mvList.promote(3));
+        assertFalse(mvList.promote(7));
+        assertTrue(mvList.promote(2));
+        assertTrue(mvList.promote(8));
+        assertTrue(mvList.promote(6));
+        assertEquals(List.of(5, 3, 1, 6, 8, 2, 4), mvList);
+        assertSame(COMPARATOR, mvList.getComparator());
+
+        mvList.sortExcluded(Integer::compare);
+        assertEquals(List.of(5, 3, 1, 2, 4, 6, 8), mvList);
+    }
 }
@@ -0,0 +1,95 @@
+package com.fathzer.games.util.exec;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.fathzer.games.util.UncheckedException;
+
+class ContextualizedExecutorTest {
+	private static class Context implements Forkable<Context> {
+		private final AtomicInteger forks;
+		private final boolean copyable;
+		private String value;
+
+		private Context(String value, boolean copyable, AtomicInteger forks) {
+			this.value = value;
+			this.copyable = copyable;
+			this.forks = forks;
+		}
+
+		@Override
+		public Context fork() {
+			forks.incrementAndGet();
+			return new Context(value, copyable, forks);
+		}
+
+		@Override
+		public boolean copyFrom(Context source) {
+			if (copyable) {
+				value = source.value;
+			}
+			return copyable;
+		}
+	}
+	
+	private static List<String> run(ContextualizedExecutor<Context> exec, Context context, boolean fail) throws InterruptedException {
+		// Ensure all the threads of the executor run a task
+		final CountDownLatch latch = new CountDownLatch(2);
+		final List<String> values = Collections.synchronizedList(new ArrayList<>());
+		final Collection<Callable<Void>> tasks = new ArrayList<>();
+		for (int i = 0; i < 2; i++) {
+			tasks.add(() -> {
+				latch.countDown();
+				latch.await();
+				assertNotSame(context, exec.getContext());
+				values.add(exec.getContext().value);
+				if (fail) {
+					throw new IllegalStateException();
+				}
+				return null;
+			});
+		}
+		exec.checkExceptions(exec.invokeAll(tasks, context));
+		return values;
+	}
+
+	@Test
+	void test() throws InterruptedException {
+		final AtomicInteger forks = new AtomicInteger();
+		try (ContextualizedExecutor<Context> exec = new ContextualizedExecutor<>(2)) {
+			final Context a = new Context("a", true, forks);
+			assertEquals(List.of("a", "a"), run(exec, a, false));
+			assertEquals(2, forks.get());
+			// Same context, threads contexts are not synchronized again
+			assertEquals(List.of("a", "a"), run(exec, a, false));
+			assertEquals(2, forks.get());
+			// New context, threads contexts are copied
+			final Context b = new Context("b", true, forks);
+			assertEquals(List.of("b", "b"), run(exec, b, false));
+			assertEquals(2, forks.get());
+			// A failure forces the threads contexts to be synchronized again
+			assertThrows(UncheckedException.class, () -> run(exec, b, true));
+			b.value = "c";
+			assertEquals(List.of("c", "c"), run(exec, b, false));
+			assertEquals(2, forks.get());
+		}
+
+		forks.set(0);
+		try (ContextualizedExecutor<Context> exec = new ContextualizedExecutor<>(2)) {
+			assertEquals(List.of("a", "a"), run(exec, new Context("a", false, forks), false));
+			assertEquals(2, forks.get());
+			// Contexts that do not support copy are forked
+			assertEquals(List.of("b", "b"), run(exec, new Context("b", false, forks), false));
+			assertEquals(4, forks.get());
+		}
+	}
+}
@@ -0,0 +1,61 @@
+package com.fathzer.games.util.exec;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.Test;
+
+class WorkerPoolTest {
+	private static class Context implements Forkable<Context> {
+		private final String name;
+
+		private Context(String name) {
+			this.name = name;
+		}
+
+		@Override
+		public Context fork() {
+			return new Context(name);
+		}
+	}
+
+	@Test
+	void test() {
+		assertThrows(IllegalArgumentException.class, () -> new WorkerPool<Context>(0));
+		final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+		try (WorkerPool<Context> pool = new WorkerPool<>(2)) {
+			assertEquals(2, pool.getParallelism());
+			assertThrows(IllegalArgumentException.class, () -> pool.getExecutionContext(null));
+			for (String name : List.of("a", "b")) {
+				final Context context = new Context(name);
+				try (ExecutionContext<Context> exec = pool.getExecutionContext(context)) {
+					assertSame(context, exec.getContext());
+					final List<String> names = Collections.synchronizedList(new ArrayList<>());
+					final List<Runnable> tasks = new ArrayList<>();
+					for (int i = 0; i < 10; i++) {
+						tasks.add(() -> {
+							threads.add(Thread.currentThread());
+							assertNotSame(context, exec.getContext());
+							names.add(exec.getContext().name);
+						});
+					}
+					exec.execute(tasks);
+					assertEquals(Collections.nCopies(10, name), names);
+				}
+				// Closing the execution context does not close the pool
+				assertFalse(pool.isClosed());
+			}
+			// Threads are reused
+			assertTrue(threads.size()<=2);
+			pool.close();
+			assertTrue(pool.isClosed());
+			final Context context = new Context("c");
+			assertThrows(IllegalStateException.class, () -> pool.getExecutionContext(context));
+		}
+	}
+}